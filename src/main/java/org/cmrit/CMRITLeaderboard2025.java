@@ -1,29 +1,20 @@
 package org.cmrit;
 
-import com.google.gson.Gson;
-import com.google.gson.annotations.SerializedName;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.openqa.selenium.By;
-import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
-import org.openqa.selenium.firefox.FirefoxDriver;
-import org.openqa.selenium.firefox.FirefoxOptions;
-
 import java.io.*;
-import java.net.*;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.sql.*;
-import java.text.DecimalFormat;
+import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * The CMRITLeaderboard2025 class is responsible for scraping and processing data from various coding platforms
@@ -33,12 +24,13 @@ import java.util.stream.Collectors;
  * ratings from the database and sorting them in descending order of percentile. The leaderboard is then saved as an
  * Excel file.
  *
- * The class provides methods for scraping ratings from each platform, loading data from CSV to the database,
- * building the leaderboard, and uploading the leaderboard to the database. It also includes helper methods for
- * splitting users into chunks for efficient scraping and parsing JSON responses from the platforms.
+ * The scraping itself lives in one {@link PlatformScraper} per platform. This class loads data from CSV to the
+ * database, runs the scrapers, builds the leaderboard and uploads it to the database, and provides the helpers the
+ * scrapers share: progress journals, ratings sinks, the ratings cache and streamed leaderboard pages.
  *
- * The class uses external libraries such as Gson for JSON parsing and Jsoup for web scraping. It also makes use of
- * standard Java libraries for database connectivity and file handling.
+ * The class uses Gson (streamed through {@link LeaderboardJson}) for JSON parsing. All HTTP traffic goes through
+ * the shared, pooled {@link ScraperHttpClient}. It also makes use of standard Java libraries for database
+ * connectivity and file handling.
  *
  * Note: This class assumes that the necessary libraries are included in the classpath and the required database
  * and file resources are available.
@@ -65,16 +57,37 @@ public class CMRITLeaderboard2025 {
             "geeksforgeeks_url_exists, codeforces_url_exists, leetcode_url_exists, codechef_url_exists, hackerrank_url_exists) " +
             "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
-    private static final String CODECHEF_URL = "https://codechef-api.vercel.app/";
-    private static final String CODEFORCES_URL = "https://codeforces.com/api/user.info?handles=";
-    private static final String LEETCODE_URL = "https://leetcode.com/graphql?query=";
-    private static final String GFG_URL = "https://auth.geeksforgeeks.org/user/";
-    private static final String GFG_WEEKLY_CONTEST_URL = "https://practiceapi.geeksforgeeks.org/api/latest/events/recurring/gfg-weekly-coding-contest/leaderboard/?leaderboard_type=0&page=";
-    private static final String GFG_PRACTICE_URL = "https://practiceapi.geeksforgeeks.org/api/v1/institute/341/students/stats?page=";
+    // Number of leaderboard pages fetched ahead of the one being processed
+    static final int PAGE_WINDOW = 4;
+
     public static List<String> SEARCH_TOKENS = new ArrayList<>();
 
+    // Participant details and scrape bookkeeping (progress journal) live in this SQLite database
+    private static final String DB_NAME = "cmrit";
+
+    // Progress journals and the ratings cache write through this connection; null if the database could not be opened
+    private static RatingsDatabase ratingsDatabase;
+
+    // Last known rating and fetch time per (handle, platform); null if the cache could not be opened
+    private static RatingsCache ratingsCache;
+
+    // Ratings kept in memory for the pipeline mode; null in every other mode
+    private static RatingsCollector ratingsCollector;
+
+    // Append-only record of every leaderboard build, committed alongside the Excel sheet
+    private static final Path HISTORY_DIR = Path.of("Leaderboards", "history");
+
+    // Ratings sinks the leaderboard is built from, in the order they are applied
+    private static final List<String> LEADERBOARD_PLATFORMS = List.of("codeforces", "gfg", "gfg_practice", "leetcode", "codechef", "hackerrank");
+
     static Map<String, User> userMap = new HashMap<>();
 
+    // Pooled client shared by all scrapers so connections and TLS sessions are reused across handles
+    private static final ScraperHttpClient HTTP = ScraperHttpClient.shared();
+
+    // Command-line options following the method name, e.g. "--sequential" or "--max-in-flight=8"
+    static Map<String, String> options = new HashMap<>();
+
 
     /**
      * The main function that loads data from CSV, fetches user details from the database, and performs scraping based on the specified method name.
@@ -112,1415 +125,907 @@ public class CMRITLeaderboard2025 {
         }
 
         String methodName = args[0];
+        parseOptions(args);
 
-        String dbName = "cmrit";
-        Connection conn = null;
-        Statement statement = null;
-        ResultSet resultSet = null;
-        ArrayList <User> trueCodechef = new ArrayList<>();
-        ArrayList <User> trueCodeforces = new ArrayList<>();
-        ArrayList <User> trueLeetcode = new ArrayList<>();
-        ArrayList <User> trueGeeksforgeeks = new ArrayList<>();
-        ArrayList <User> trueHackerrank = new ArrayList<>();
-
-        Map<String, User> gfgHandleToUserMap;
-        Map<String, User> hackerrankHandleToUserMap;
-
-        switch (methodName) {
-            case "codechef":
-                // Fetch all true codechef handles from the database
-                try {
-                    conn = DriverManager.getConnection("jdbc:sqlite:" + dbName);
-                    statement = conn.createStatement();
+        try {
+            ratingsDatabase = RatingsDatabase.open(DB_NAME);
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
 
-                    String sql = "SELECT handle, codechef_handle FROM users_data WHERE codechef_url_exists = 1";
-                    resultSet = statement.executeQuery(sql);
+        // Every scrape refreshes the ratings cache; incremental runs also read from it
+        if (ratingsDatabase != null) {
+            try {
+                ratingsCache = RatingsCache.open(ratingsDatabase);
+            } catch (IOException e) {
+                System.err.println(e.getMessage());
+            }
+        }
 
-                    assert resultSet != null;
+        // Every platform scraper on the classpath, by mode name
+        Map<String, PlatformScraper> scrapers = loadScrapers();
 
-                    while (resultSet.next()) {
-                        String handle = resultSet.getString("handle");
-                        String codechefHandle = resultSet.getString("codechef_handle");
-                        if (codechefHandle != null) {
-                            trueCodechef.add(new User(handle, "codechef", codechefHandle));
-                        }
-                    }
-
-                } catch (SQLException e) {
-                    System.err.println("Error fetching true Codechef handles: " + e.getMessage());
-                } finally {
-                    try {
-                        if (resultSet != null) resultSet.close();
-                        if (statement != null) statement.close();
-                        if (conn != null) conn.close();
-                    } catch (SQLException e) {
-                        System.err.println("Error closing resultSet, statement, or connection: " + e.getMessage());
-                    }
-                }
-                scrapeCodechef(trueCodechef);
+        switch (methodName) {
+            case "all":
+                scrapeAll(scrapers.values());
                 break;
-            case "codeforces":
-                // Fetch all true codeforces handles from the database
-                try {
-                    conn = DriverManager.getConnection("jdbc:sqlite:" + dbName);
-                    statement = conn.createStatement();
-
-                    String sql = "SELECT handle, codeforces_handle FROM users_data WHERE codeforces_url_exists = 1";
-                    resultSet = statement.executeQuery(sql);
-
-                    assert resultSet != null;
-
-                    while (resultSet.next()) {
-                        String handle = resultSet.getString("handle");
-                        String codeforcesHandle = resultSet.getString("codeforces_handle");
-                        if (codeforcesHandle != null) {
-                            trueCodeforces.add(new User(handle, "codeforces", codeforcesHandle));
-                        }
-                    }
-
-                } catch (SQLException e) {
-                    System.err.println("Error fetching true Codeforces handles: " + e.getMessage());
-                } finally {
-                    try {
-                        if (resultSet != null) resultSet.close();
-                        if (statement != null) statement.close();
-                        if (conn != null) conn.close();
-                    } catch (SQLException e) {
-                        System.err.println("Error closing resultSet, statement, or connection: " + e.getMessage());
-                    }
-                }
-                scrapeCodeforces(trueCodeforces);
+            case "build_leaderboard":
+                loadUsers();
+                loadRatingFiles(LEADERBOARD_PLATFORMS);
+                buildLeaderboard();
                 break;
-            case "leetcode":
-                // Fetch all true leetcode handles from the database
-                try{
-                    conn = DriverManager.getConnection("jdbc:sqlite:" + dbName);
-                    statement = conn.createStatement();
-
-                    String sql = "SELECT handle, leetcode_handle FROM users_data WHERE leetcode_url_exists = 1";
-                    resultSet = statement.executeQuery(sql);
-
-                    assert resultSet != null;
-
-                    while (resultSet.next()) {
-                        String handle = resultSet.getString("handle");
-                        String leetcodeHandle = resultSet.getString("leetcode_handle");
-                        if (leetcodeHandle != null) {
-                            trueLeetcode.add(new User(handle, "leetcode", leetcodeHandle));
-                        }
-                    }
-                } catch (SQLException e) {
-                    System.err.println("Error fetching true Leetcode handles: " + e.getMessage());
-                } finally {
-                    try {
-                        if (resultSet != null) resultSet.close();
-                        if (statement != null) statement.close();
-                        if (conn != null) conn.close();
-                    } catch (SQLException e) {
-                        System.err.println("Error closing resultSet, statement, or connection: " + e.getMessage());
-                    }
-                }
-
-                scrapeLeetcode(trueLeetcode);
+            case "pipeline":
+                runPipeline(scrapers.values());
                 break;
-            case "gfg":
-                // Fetch all true gfg handles from the database
-                try{
-                    conn = DriverManager.getConnection("jdbc:sqlite:" + dbName);
-                    statement = conn.createStatement();
-
-                    String sql = "SELECT handle, geeksforgeeks_handle FROM users_data WHERE geeksforgeeks_url_exists = 1";
-                    resultSet = statement.executeQuery(sql);
-
-                    assert resultSet != null;
-
-                    while (resultSet.next()) {
-                        String handle = resultSet.getString("handle");
-                        String geeksforgeeksHandle = resultSet.getString("geeksforgeeks_handle");
-                        if (geeksforgeeksHandle != null) {
-                            trueGeeksforgeeks.add(new User(handle, "geeksforgeeks", geeksforgeeksHandle));
-                        }
-                    }
-                } catch (SQLException e) {
-                    System.err.println("Error fetching true GeeksforGeeks handles: " + e.getMessage());
-                } finally {
-                    try {
-                        if (resultSet != null) resultSet.close();
-                        if (statement != null) statement.close();
-                        if (conn != null) conn.close();
-                    } catch (SQLException e) {
-                        System.err.println("Error closing resultSet, statement, or connection: " + e.getMessage());
-                    }
-                }
-
-                // create a gfgHandle to user map
-                gfgHandleToUserMap = new HashMap<>();
-                for (User user : trueGeeksforgeeks) {
-                    gfgHandleToUserMap.put(user.getGeeksforgeeksHandle().toLowerCase(), user);
-                }
-
-                scrapeGfg(trueGeeksforgeeks, gfgHandleToUserMap);
+            case "history":
+                showHistory();
                 break;
-            case "gfg_practice":
-                // Fetch all true gfg handles from the database
-                try{
-                    conn = DriverManager.getConnection("jdbc:sqlite:" + dbName);
-                    statement = conn.createStatement();
-
-                    String sql = "SELECT handle, geeksforgeeks_handle FROM users_data WHERE geeksforgeeks_url_exists = 1";
-                    resultSet = statement.executeQuery(sql);
-
-                    assert resultSet != null;
-
-                    while (resultSet.next()) {
-                        String handle = resultSet.getString("handle");
-                        String geeksforgeeksHandle = resultSet.getString("geeksforgeeks_handle");
-                        if (geeksforgeeksHandle != null) {
-                            trueGeeksforgeeks.add(new User(handle, "geeksforgeeks", geeksforgeeksHandle));
-                        }
-                    }
-                } catch (SQLException e) {
-                    System.err.println("Error fetching true GeeksforGeeks handles: " + e.getMessage());
-                } finally {
-                    try {
-                        if (resultSet != null) resultSet.close();
-                        if (statement != null) statement.close();
-                        if (conn != null) conn.close();
-                    } catch (SQLException e) {
-                        System.err.println("Error closing resultSet, statement, or connection: " + e.getMessage());
-                    }
-                }
-
-                // create a gfgHandle to user map
-                gfgHandleToUserMap = new HashMap<>();
-                for (User user : trueGeeksforgeeks) {
-                    gfgHandleToUserMap.put(user.getGeeksforgeeksHandle().toLowerCase(), user);
-                }
-
-                scrapeGfgPractice(trueGeeksforgeeks, gfgHandleToUserMap);
+            case "serve":
+                // The server's threads keep the process alive once main returns
+                serveLeaderboard(intOption("port", 8080), intOption("refresh-seconds", 60));
                 break;
-            case "hackerrank":
-                // Fetch all true hackerrank handles from the database
-                try{
-                    conn = DriverManager.getConnection("jdbc:sqlite:" + dbName);
-                    statement = conn.createStatement();
-
-                    String sql = "SELECT handle, hackerrank_handle FROM users_data WHERE hackerrank_url_exists = 1";
-                    resultSet = statement.executeQuery(sql);
-
-                    assert resultSet != null;
-
-                    while (resultSet.next()) {
-                        String handle = resultSet.getString("handle");
-                        String hackerrankHandle = resultSet.getString("hackerrank_handle");
-                        if (hackerrankHandle != null) {
-                            trueHackerrank.add(new User(handle, "hackerrank", hackerrankHandle));
-                        }
-                    }
-                } catch (SQLException e) {
-                    System.err.println("Error fetching true Hackerrank handles: " + e.getMessage());
-                } finally {
-                    try {
-                        if (resultSet != null) resultSet.close();
-                        if (statement != null) statement.close();
-                        if (conn != null) conn.close();
-                    } catch (SQLException e) {
-                        System.err.println("Error closing resultSet, statement, or connection: " + e.getMessage());
-                    }
-                }
-
-                // create a hackerrankHandle to user map
-                hackerrankHandleToUserMap = new HashMap<>();
-                for (User user : trueHackerrank) {
-                    hackerrankHandleToUserMap.put(user.getHackerrankHandle().toLowerCase(), user);
-                }
-
-                scrapeHackerrank(trueHackerrank, hackerrankHandleToUserMap);
+            case "benchmark_scores":
+                benchmarkScores(intOption("students", 100_000), intOption("rounds", 10), intOption("updates", 10_000));
                 break;
-            case "all":
-                // Fetch all true handles from the database
-                try {
-                    conn = DriverManager.getConnection("jdbc:sqlite:" + dbName);
-                    statement = conn.createStatement();
-
-                    String sql = "SELECT handle, " +
-                            "CASE WHEN codeforces_url_exists = 1 THEN codeforces_handle ELSE NULL END AS codeforces_handle, " +
-                            "CASE WHEN leetcode_url_exists = 1 THEN leetcode_handle ELSE NULL END AS leetcode_handle, " +
-                            "CASE WHEN geeksforgeeks_url_exists = 1 THEN geeksforgeeks_handle ELSE NULL END AS geeksforgeeks_handle, " +
-                            "CASE WHEN codechef_url_exists = 1 THEN codechef_handle ELSE NULL END AS codechef_handle, " +
-                            "CASE WHEN hackerrank_url_exists = 1 THEN hackerrank_handle ELSE NULL END AS hackerrank_handle " +
-                            "FROM users_data";
-                    resultSet = statement.executeQuery(sql);
-
-                    assert resultSet != null;
-
-                    while (resultSet.next()) {
-                        String handle = resultSet.getString("handle");
-                        String codeforcesHandle = resultSet.getString("codeforces_handle");
-                        String leetcodeHandle = resultSet.getString("leetcode_handle");
-                        String geeksforgeeksHandle = resultSet.getString("geeksforgeeks_handle");
-                        String codechefHandle = resultSet.getString("codechef_handle");
-                        String hackerrankHandle = resultSet.getString("hackerrank_handle");
-
-                        if (codeforcesHandle != null) {
-                            trueCodeforces.add(new User(handle, "codeforces", codeforcesHandle));
-                        }
-                        if (leetcodeHandle != null) {
-                            trueLeetcode.add(new User(handle, "leetcode", leetcodeHandle));
-                        }
-                        if (geeksforgeeksHandle != null) {
-                            trueGeeksforgeeks.add(new User(handle, "geeksforgeeks", geeksforgeeksHandle));
-                        }
-                        if ((codechefHandle != null)) {
-                            trueCodechef.add(new User(handle, "codechef", codechefHandle));
-                        }
-                        if (hackerrankHandle != null) {
-                            trueHackerrank.add(new User(handle, "hackerrank", hackerrankHandle));
-                        }
-                    }
-
-                } catch (SQLException e) {
-                    System.err.println("Error fetching true handles: " + e.getMessage());
-                } finally {
-                    try {
-                        if (resultSet != null) resultSet.close();
-                        if (statement != null) statement.close();
-                        if (conn != null) conn.close();
-                    } catch (SQLException e) {
-                        System.err.println("Error closing resultSet, statement, or connection: " + e.getMessage());
-                    }
-                }
-
-                // create a gfgHandle to user map
-                gfgHandleToUserMap = new HashMap<>();
-                for (User user : trueGeeksforgeeks) {
-                    gfgHandleToUserMap.put(user.getGeeksforgeeksHandle().toLowerCase(), user);
+            default:
+                PlatformScraper scraper = scrapers.get(methodName);
+                if (scraper == null) {
+                    System.err.println("Invalid method specified.");
+                    System.exit(1);
                 }
-
-                // create a hackerrankHandle to user map
-                hackerrankHandleToUserMap = new HashMap<>();
-                for (User user : trueHackerrank) {
-                    hackerrankHandleToUserMap.put(user.getHackerrankHandle().toLowerCase(), user);
+                try {
+                    scraper.scrape(loadRoster(scraper));
+                } catch (IOException e) {
+                    throw new CustomScrapingException("Error scraping " + scraper.name() + ": " + e.getMessage());
                 }
+        }
 
-                scrapeCodechef(trueCodechef);
-                scrapeCodeforces(trueCodeforces);
-                scrapeLeetcode(trueLeetcode);
-                scrapeGfg(trueGeeksforgeeks, gfgHandleToUserMap);
-                scrapeHackerrank(trueHackerrank, hackerrankHandleToUserMap);
-                break;
-            case "build_leaderboard":
-                // Add all usernames to the userMap which can be fetched from the database
-                try{
-                    conn = DriverManager.getConnection("jdbc:sqlite:" + dbName);
-                    statement = conn.createStatement();
-
-                    String sql = "SELECT * FROM users_data";
-                    resultSet = statement.executeQuery(sql);
-
-                    assert resultSet != null;
-
-                    while (resultSet.next()) {
-                        String handle = resultSet.getString("handle");
-                        String codeforcesHandle = resultSet.getString("codeforces_handle");
-                        String geeksforgeeksHandle = resultSet.getString("geeksforgeeks_handle");
-                        String leetcodeHandle = resultSet.getString("leetcode_handle");
-                        String codechefHandle = resultSet.getString("codechef_handle");
-                        String hackerrankHandle = resultSet.getString("hackerrank_handle");
-                        User user = new User(handle, codeforcesHandle, geeksforgeeksHandle, leetcodeHandle, codechefHandle, hackerrankHandle);
-                        // Add the user to the userMap
-                        userMap.put(handle, user);
-                    }
-                } catch (SQLException e) {
-                    throw new RuntimeException(e);
-                }
-                buildLeaderboard();
-                break;
-            default:
-                System.err.println("Invalid method specified.");
-                System.exit(1);
+        if (ratingsCache != null) {
+            try {
+                ratingsCache.close();
+            } catch (IOException e) {
+                System.err.println(e.getMessage());
+            }
+        }
+        if (ratingsDatabase != null) {
+            try {
+                ratingsDatabase.close();
+            } catch (IOException e) {
+                System.err.println(e.getMessage());
+            }
         }
     }
 
     /**
-     * Use all generated rating files to build the leaderboard
-     * Read all the rating files and store the ratings in a map
+     * Finds the platform scrapers registered in META-INF/services.
+     *
+     * @return  the scrapers by mode name, in registration order
      */
-    private static void buildLeaderboard(){
-        // Use all generated rating files to build the leaderboard
-        // Read all the rating files and store the ratings in a map
+    static Map<String, PlatformScraper> loadScrapers() {
+        Map<String, PlatformScraper> scrapers = new LinkedHashMap<>();
+        for (PlatformScraper scraper : ServiceLoader.load(PlatformScraper.class)) {
+            scrapers.put(scraper.name(), scraper);
+        }
+        return scrapers;
+    }
 
-        try {
-            BufferedReader reader = new BufferedReader(new FileReader("codeforces_ratings.txt"));
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] data = line.split(",");
-                String handle = data[0];
-                String codeforcesHandle = data[1];
-                int rating = Integer.parseInt(data[2]);
-                // if the user is not in the map, add the user
-                if (!userMap.containsKey(handle)) {
-                    userMap.put(handle, new User(handle, "codeforces", codeforcesHandle));
+    /**
+     * Reads the users with a verified handle on a scraper's platform from the database.
+     *
+     * @param  scraper  the scraper whose roster to load
+     * @return          one user per verified handle
+     */
+    static ArrayList<User> loadRoster(PlatformScraper scraper) {
+        String platform = scraper.rosterPlatform();
+        ArrayList<User> users = new ArrayList<>();
+        String sql = "SELECT handle, " + platform + "_handle FROM users_data WHERE " + platform + "_url_exists = 1";
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_NAME);
+             Statement statement = conn.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            while (resultSet.next()) {
+                String handle = resultSet.getString("handle");
+                String platformHandle = resultSet.getString(platform + "_handle");
+                if (platformHandle != null) {
+                    users.add(new User(handle, platform, platformHandle));
                 }
-                User user = userMap.get(handle);
-                user.setCodeforcesRating(rating);
             }
-        } catch (IOException e) {
-            System.err.println("Error reading Codeforces ratings file: " + e.getMessage());
+        } catch (SQLException e) {
+            System.err.println("Error fetching true " + scraper.name() + " handles: " + e.getMessage());
         }
-        System.out.println("Codeforces ratings read successfully.");
-        try {
-            BufferedReader reader = new BufferedReader(new FileReader("gfg_ratings.txt"));
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] data = line.split(",");
-                String handle = data[0];
-                String gfgHandle = data[1];
-                int rating = Integer.parseInt(data[2]);
-                // if the user is not in the map, add the user
-                if (!userMap.containsKey(handle)) {
-                    userMap.put(handle, new User(handle, "geeksforgeeks", gfgHandle));
-                }
-                User user = userMap.get(handle);
-                user.setGeeksforgeeksRating(rating);
-            }
-        } catch (IOException e) {
-            System.err.println("Error reading GFG ratings file: " + e.getMessage());
+        return users;
+    }
+
+    /**
+     * Runs every platform scraper at the same time, each on its own virtual thread with its own roster. The
+     * platforms are on different hosts and each keeps its own rate limiter, so they do not slow each other down and
+     * the run takes about as long as the slowest platform. A platform that fails does not stop the others.
+     *
+     * @param  scrapers  the scrapers to run
+     * @throws CustomScrapingException  if any platform failed, once all of them have finished
+     */
+    private static void scrapeAll(Collection<PlatformScraper> scrapers) throws CustomScrapingException {
+        List<String> failed = runScrapers(scrapers);
+        if (!failed.isEmpty()) {
+            throw new CustomScrapingException("Scraping failed for " + String.join(", ", failed));
         }
-        System.out.println("GFG ratings read successfully.");
-        try {
-            BufferedReader reader = new BufferedReader(new FileReader("gfg_practice_ratings.txt"));
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] data = line.split(",");
-                String handle = data[0];
-                String gfgHandle = data[1];
-                int rating = Integer.parseInt(data[2]);
-                // if the user is not in the map, add the
-                if (!userMap.containsKey(handle)) {
-                    userMap.put(handle, new User(handle, "geeksforgeeks", gfgHandle));
-                }
-                User user = userMap.get(handle);
-                user.setgeeksforgeeksPracticeRating(rating);
+    }
+
+    /**
+     * Runs the scrapers concurrently as described for {@link #scrapeAll} and reports which of them threw.
+     *
+     * @param  scrapers  the scrapers to run
+     * @return           the names of the scrapers that failed
+     * @throws CustomScrapingException  if interrupted while waiting for the scrapers
+     */
+    private static List<String> runScrapers(Collection<PlatformScraper> scrapers) throws CustomScrapingException {
+        System.out.println("Scraping " + scrapers.size() + " platforms concurrently...");
+        long start = System.nanoTime();
+
+        Map<String, Future<Long>> runs = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (PlatformScraper scraper : scrapers) {
+                runs.put(scraper.name(), executor.submit(() -> {
+                    long platformStart = System.nanoTime();
+                    scraper.scrape(loadRoster(scraper));
+                    return System.nanoTime() - platformStart;
+                }));
             }
-        } catch (IOException e) {
-            System.err.println("Error reading GFG Practice ratings file: " + e.getMessage());
         }
-        System.out.println("GFG Practice ratings read successfully.");
-        try {
-            BufferedReader reader = new BufferedReader(new FileReader("leetcode_ratings.txt"));
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] data = line.split(",");
-                String handle = data[0];
-                String leetcodeHandle = data[1];
-                int rating = Integer.parseInt(data[2]);
-                // if the user is not in the map, add the user
-                if (!userMap.containsKey(handle)) {
-                    userMap.put(handle, new User(handle, "leetcode", leetcodeHandle));
-                }
-                User user = userMap.get(handle);
-                user.setLeetcodeRating(rating);
+
+        List<String> failed = new ArrayList<>();
+        for (Map.Entry<String, Future<Long>> run : runs.entrySet()) {
+            try {
+                System.out.println(run.getKey() + " finished in " + TimeUnit.NANOSECONDS.toSeconds(run.getValue().get()) + "s");
+            } catch (ExecutionException e) {
+                System.err.println(run.getKey() + " failed: " + e.getCause().getMessage());
+                failed.add(run.getKey());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CustomScrapingException("Interrupted while scraping " + run.getKey());
             }
-        } catch (IOException e) {
-            System.err.println("Error reading Leetcode ratings file: " + e.getMessage());
         }
-        System.out.println("Leetcode ratings read successfully.");
-        try {
-            BufferedReader reader = new BufferedReader(new FileReader("codechef_ratings.txt"));
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] data = line.split(",");
-                String handle = data[0];
-                String codechefHandle = data[1];
-                int rating = Integer.parseInt(data[2]);
-                // if the user is not in the map, add the user
-                if (!userMap.containsKey(handle)) {
-                    userMap.put(handle, new User(handle, "codechef", codechefHandle));
-                }
-                User user = userMap.get(handle);
-                user.setCodechefRating(rating);
+        System.out.println("All platforms finished in " + TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) + "s");
+        return failed;
+    }
+
+    /**
+     * Scrapes every platform and builds the leaderboard in one process. The ratings go from the sinks straight into
+     * {@link #userMap} through a {@link RatingsCollector}; {@code <platform>_ratings.txt} is only written with
+     * {@code --debug-files}. A platform that fails, or whose scraper gives up without committing, keeps the ratings
+     * of its last complete ratings file, exactly as {@code build_leaderboard} would see them.
+     *
+     * @param  scrapers  the scrapers to run
+     * @throws CustomScrapingException  if any platform failed, after the leaderboard has been built
+     */
+    private static void runPipeline(Collection<PlatformScraper> scrapers) throws CustomScrapingException {
+        ratingsCollector = new RatingsCollector();
+        List<String> failed = runScrapers(scrapers);
+
+        loadUsers();
+        List<String> fallback = new ArrayList<>();
+        for (String platform : LEADERBOARD_PLATFORMS) {
+            List<RatingsCollector.Rating> ratings = ratingsCollector.take(platform);
+            if (ratings == null) {
+                System.err.println("No complete " + platform + " ratings from this run, using its last ratings file");
+                fallback.add(platform);
+                continue;
             }
-        } catch (IOException e) {
-            System.err.println("Error reading Codechef ratings file: " + e.getMessage());
-        }
-        System.out.println("Codechef ratings read successfully.");
-        try {
-            BufferedReader reader = new BufferedReader(new FileReader("hackerrank_ratings.txt"));
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] data = line.split(",");
-                String handle = data[0];
-                String hackerrankHandle = data[1];
-                int rating = Integer.parseInt(data[2]);
-                // if the user is not in the map, add the user
-                if (!userMap.containsKey(handle)) {
-                    userMap.put(handle, new User(handle, "hackerrank", hackerrankHandle));
-                }
-                User user = userMap.get(handle);
-                user.setHackerrankRating(rating);
+            for (RatingsCollector.Rating rating : ratings) {
+                applyRating(platform, rating.handle(), rating.platformHandle(), rating.rating());
             }
-        } catch (IOException e) {
-            System.err.println("Error reading Hackerrank ratings file: " + e.getMessage());
+            System.out.println(ratings.size() + " " + platform + " ratings applied.");
         }
-        System.out.println("Hackerrank ratings read successfully.");
-
-        // Upload userMap as a leaderboard to the database
-        uploadLeaderboardToDatabase(userMap);
+        loadRatingFiles(fallback);
+        buildLeaderboard();
 
-        // use sql to find max of each rating
-        // use sql to find percentile of each user
-
-        String dbName = "leaderboard";
-        Connection conn = null;
-        Statement statement = null;
-        ResultSet resultSet = null;
-
-        int maxCodeforcesRating = 0;
-        int maxGeeksforgeeksRating = 0;
-        int maxGeeksforgeeksPracticeRating = 0;
-        int maxLeetcodeRating = 0;
-        int maxCodechefRating = 0;
-        int maxHackerrankRating = 0;
+        if (!failed.isEmpty()) {
+            throw new CustomScrapingException("Scraping failed for " + String.join(", ", failed));
+        }
+    }
 
-        String sql = "SELECT MAX(codeforces_rating) AS max_codeforces_rating, MAX(geeksforgeeks_rating) AS max_geeksforgeeks_rating, MAX(geeksforgeeks_practice_rating) AS max_geeksforgeeks_practice_rating, MAX(leetcode_rating) AS max_leetcode_rating, MAX(codechef_rating) AS max_codechef_rating, MAX(hackerrank_rating) AS max_hackerrank_rating FROM leaderboard";
-        try {
-            conn = DriverManager.getConnection("jdbc:sqlite:" + dbName);
-            statement = conn.createStatement();
-            resultSet = statement.executeQuery(sql);
-            assert resultSet != null;
-            maxCodeforcesRating = resultSet.getInt("max_codeforces_rating");
-            maxGeeksforgeeksRating = resultSet.getInt("max_geeksforgeeks_rating");
-            maxGeeksforgeeksPracticeRating = resultSet.getInt("max_geeksforgeeks_practice_rating");
-            maxLeetcodeRating = resultSet.getInt("max_leetcode_rating");
-            maxCodechefRating = resultSet.getInt("max_codechef_rating");
-            maxHackerrankRating = resultSet.getInt("max_hackerrank_rating");
-        } catch (SQLException e) {
-            System.err.println("Error fetching max ratings: " + e.getMessage());
-        } finally {
-            try {
-                if (resultSet != null) resultSet.close();
-                if (statement != null) statement.close();
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                System.err.println("Error closing resultSet, statement, or connection: " + e.getMessage());
-            }
+    /**
+     * @return  the users keyed by their lowercased platform handle
+     */
+    static Map<String, User> handleMap(List<User> users, Function<User, String> platformHandle) {
+        Map<String, User> map = new HashMap<>();
+        for (User user : users) {
+            map.put(platformHandle.apply(user).toLowerCase(), user);
         }
+        return map;
+    }
 
-        // update the userMap with percentile
-        for (User user : userMap.values()) {
-            double cf = (double) user.getCodeforcesRating() / maxCodeforcesRating * 100;
-            double gfgs = (double) user.getGeeksforgeeksRating() / maxGeeksforgeeksRating * 100;
-            if (user.getgeeksforgeeksPracticeRating() == null) {
-                user.setgeeksforgeeksPracticeRating(0);
+    /**
+     * Parses the options that follow the method name. Options take the form {@code --name} or
+     * {@code --name=value}; anything else is ignored with a warning.
+     *
+     * @param  args   the command-line arguments, including the method name at index 0
+     */
+    static void parseOptions(String[] args) {
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                System.err.println("Ignoring unrecognised argument: " + arg);
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
             }
-            double gfgp = (double) user.getgeeksforgeeksPracticeRating() / maxGeeksforgeeksPracticeRating * 100;
-            double lc = (double) user.getLeetcodeRating() / maxLeetcodeRating * 100;
-            double cc = (double) user.getCodechefRating() / maxCodechefRating * 100;
-            double hr = (double) user.getHackerrankRating() / maxHackerrankRating * 100;
-            double percentile = ( cf * 0.3 + gfgs*0.3  + gfgp*0.1 + lc*0.1 + cc*0.1 + hr*0.1 );
-
-            user.setPercentile(percentile);
         }
+    }
 
-        // Push the updated userMap to the database
-        uploadLeaderboardToDatabase(userMap);
+    static boolean hasOption(String name) {
+        return options.containsKey(name);
+    }
 
-        // Fetch the leaderboard from the database with decreasing percentile
-        sql = "SELECT * FROM leaderboard ORDER BY percentile DESC";
+    static int intOption(String name, int defaultValue) {
+        String value = options.get(name);
+        if (value == null) return defaultValue;
         try {
-            conn = DriverManager.getConnection("jdbc:sqlite:" + dbName);
-            statement = conn.createStatement();
-            resultSet = statement.executeQuery(sql);
-            assert resultSet != null;
-
-            // Create a new workbook
-            XSSFSheet sheet;
-            XSSFWorkbook workbook = new XSSFWorkbook();
-            sheet = workbook.createSheet("Leaderboard");
-            // Create a header row with the column names
-            Row headerRow = sheet.createRow(0);
-
-            // Create bold font with size 18 for column headers
-            Font boldFont = workbook.createFont();
-            boldFont.setBold(true);
-            boldFont.setFontHeightInPoints((short) 20);
-
-            Font boldFont2 = workbook.createFont();
-            boldFont2.setBold(true);
-            boldFont2.setFontHeightInPoints((short) 14);
-
-            // Create bold centered cell style with 14 font size for normal cells
-            CellStyle boldCenteredCellStyle = workbook.createCellStyle();
-            boldCenteredCellStyle.setAlignment(HorizontalAlignment.CENTER);
-            boldCenteredCellStyle.setFont(boldFont);
-            boldCenteredCellStyle.setFillForegroundColor(IndexedColors.LIGHT_TURQUOISE1.getIndex());
-            boldCenteredCellStyle.setBorderBottom(BorderStyle.THICK);
-            boldCenteredCellStyle.setBorderTop(BorderStyle.THICK);
-            boldCenteredCellStyle.setBorderLeft(BorderStyle.THICK);
-            boldCenteredCellStyle.setBorderRight(BorderStyle.THICK);
-            boldCenteredCellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            // Create bold cell style with 14 font size for normal cells
-            CellStyle boldCellStyle = workbook.createCellStyle();
-            boldCellStyle.setAlignment(HorizontalAlignment.CENTER);
-            boldCellStyle.setFont(boldFont2);
-            boldCellStyle.setFillForegroundColor(IndexedColors.TURQUOISE.getIndex());
-            boldCellStyle.setBorderBottom(BorderStyle.THICK);
-            boldCellStyle.setBorderTop(BorderStyle.THICK);
-            boldCellStyle.setBorderLeft(BorderStyle.THICK);
-            boldCellStyle.setBorderRight(BorderStyle.THICK);
-            boldCellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            String[] columns = {"Rank", "Handle", "Codeforces_Handle", "Codeforces_Rating", "Geeksforgeeks_Handle", "Geeksforgeeks_Rating", "Geeksforgeeks_Practice_Rating", "Leetcode_Handle", "Leetcode_Rating", "Codechef_Handle", "Codechef_Rating", "Hackerrank_Handle", "Hackerrank_Rating", "Percentile"};
-            for (int i = 0; i < columns.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellStyle(boldCenteredCellStyle);
-                cell.setCellValue(columns[i]);
-            }
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for --" + name + ": " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
 
-            int rank = 1;
+    /**
+     * Adds every user in the database to {@link #userMap}, so students without any rating still get a row.
+     */
+    private static void loadUsers() {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + DB_NAME);
+             Statement statement = conn.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT * FROM users_data")) {
             while (resultSet.next()) {
                 String handle = resultSet.getString("handle");
-                int codeforcesRating = resultSet.getInt("codeforces_rating");
-                int codechefRating = resultSet.getInt("codechef_rating");
-                int leetcodeRating = resultSet.getInt("leetcode_rating");
-                int geeksforgeeksRating = resultSet.getInt("geeksforgeeks_rating");
-                int geeksforgeeksPracticeRating = resultSet.getInt("geeksforgeeks_practice_rating");
-                int hackerrankRating = resultSet.getInt("hackerrank_rating");
-                DecimalFormat df = new DecimalFormat("#.##");
-                double percentileD = Double.parseDouble(df.format(resultSet.getDouble("percentile")));
-                // convert to string and add % at the end
-                String percentile = percentileD + "%";
-                String codeforcesHandle = userMap.get(handle).getCodeforcesHandle();
-                String geeksforgeeksHandle = userMap.get(handle).getGeeksforgeeksHandle();
-                String leetcodeHandle = userMap.get(handle).getLeetcodeHandle();
-                String codechefHandle = userMap.get(handle).getCodechefHandle();
-                String hackerrankHandle = userMap.get(handle).getHackerrankHandle();
-                System.out.println(rank + ". " + handle + " - " + codeforcesRating + " - " + geeksforgeeksRating + " - " + geeksforgeeksPracticeRating + " - " + leetcodeRating + " - " + codechefRating + " - " + hackerrankRating + " - " + percentile);
-
-                // Append the data to the sheet
-                Row row = sheet.createRow(rank);
-                // add all the data to the row at once
-                Object[] data = {rank, handle, codeforcesHandle, codeforcesRating, geeksforgeeksHandle, geeksforgeeksRating, geeksforgeeksPracticeRating, leetcodeHandle, leetcodeRating, codechefHandle, codechefRating, hackerrankHandle, hackerrankRating, percentile};
-                for (int i = 0; i < data.length; i++) {
-                    Cell cell = row.createCell(i);
-                    cell.setCellStyle(boldCellStyle);
-                    if (data[i] instanceof String) {
-                        cell.setCellValue((String) data[i]);
-                    } else if (data[i] instanceof Integer) {
-                        cell.setCellValue((Integer) data[i]);
-                    } else if (data[i] instanceof Double) {
-                        cell.setCellValue((Double) data[i]);
-                    }
-                }
-                rank++;
-            }
-
-            // Set all cells to auto-size
-            for (int i = 0; i < columns.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-
-            // Check if the directory exists, if not create it
-            File directory = new File("Leaderboards");
-            if (!directory.exists()) {
-                boolean dirCreated = directory.mkdir();
-                if (!dirCreated) {
-                    System.err.println("Error creating directory: Leaderboards");
-                }
-            }
-
-            // Write the workbook to a file
-            try (FileOutputStream fileOut = new FileOutputStream("Leaderboards//CurrentCMRITLeaderboard2025.xlsx")) {
-                workbook.write(fileOut);
-            } catch (IOException e) {
-                System.err.println("Error writing leaderboard to file: " + e.getMessage());
+                String codeforcesHandle = resultSet.getString("codeforces_handle");
+                String geeksforgeeksHandle = resultSet.getString("geeksforgeeks_handle");
+                String leetcodeHandle = resultSet.getString("leetcode_handle");
+                String codechefHandle = resultSet.getString("codechef_handle");
+                String hackerrankHandle = resultSet.getString("hackerrank_handle");
+                User user = new User(handle, codeforcesHandle, geeksforgeeksHandle, leetcodeHandle, codechefHandle, hackerrankHandle);
+                userMap.put(handle, user);
             }
         } catch (SQLException e) {
-            System.err.println("Error fetching leaderboard: " + e.getMessage());
-        } finally {
-            try {
-                if (resultSet != null) resultSet.close();
-                if (statement != null) statement.close();
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                System.err.println("Error closing resultSet, statement, or connection: " + e.getMessage());
-            }
+            throw new RuntimeException(e);
         }
     }
 
     /**
-     * Uploads the leaderboard to the database.
+     * Reads the ratings file of each given platform into {@link #userMap}. The files are memory-mapped and decoded
+     * in parallel, then applied in the given order. A platform without {@code <platform>_ratings.bin} falls back to
+     * the text export {@code <platform>_ratings.txt}.
      *
-     * @param  userMap   a map of user handles to user objects
+     * @param  platforms  the ratings sinks' platform names
      */
-    private static void uploadLeaderboardToDatabase(Map<String, User> userMap) {
-        String dbName = "leaderboard";
-        Connection conn = null;
-        PreparedStatement preparedStatement = null;
-
-        try {
-            conn = DriverManager.getConnection("jdbc:sqlite:" + dbName);
-
-            // if the table exists, drop it
-            String sql = "DROP TABLE IF EXISTS leaderboard";
-            preparedStatement = conn.prepareStatement(sql);
-            preparedStatement.executeUpdate();
-
-            sql = "CREATE TABLE IF NOT EXISTS leaderboard (" +
-                    "handle TEXT PRIMARY KEY," +
-                    "codeforces_rating INTEGER," +
-                    "codechef_rating INTEGER," +
-                    "leetcode_rating INTEGER," +
-                    "geeksforgeeks_rating INTEGER," +
-                    "geeksforgeeks_practice_rating INTEGER," +
-                    "hackerrank_rating INTEGER, " +
-                    "percentile REAL)";
-
-            preparedStatement = conn.prepareStatement(sql);
-            preparedStatement.executeUpdate();
-
-            sql = "REPLACE INTO leaderboard " +
-                    "(handle, codeforces_rating, codechef_rating, leetcode_rating, geeksforgeeks_rating, geeksforgeeks_practice_rating, hackerrank_rating, percentile) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-
-            preparedStatement = conn.prepareStatement(sql);
-
-            for (User user : userMap.values()) {
-                preparedStatement.setString(1, user.getHandle());
-                preparedStatement.setInt(2, user.getCodeforcesRating());
-                preparedStatement.setInt(3, user.getCodechefRating());
-                preparedStatement.setInt(4, user.getLeetcodeRating());
-                preparedStatement.setInt(5, user.getGeeksforgeeksRating());
-                if (user.getgeeksforgeeksPracticeRating() == null) {
-                    preparedStatement.setInt(6, 0);
-                } else {
-                    preparedStatement.setInt(6, user.getgeeksforgeeksPracticeRating());
-                }
-                preparedStatement.setInt(7, user.getHackerrankRating());
-                if (user.getPercentile() == null) {
-                    preparedStatement.setNull(8, Types.REAL);
-                } else {
-                    preparedStatement.setDouble(8, user.getPercentile());
-                }
-                preparedStatement.executeUpdate();
+    private static void loadRatingFiles(List<String> platforms) {
+        Map<String, Future<List<RatingsCollector.Rating>>> reads = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String platform : platforms) {
+                reads.put(platform, executor.submit(() -> readRatings(platform)));
             }
-        } catch (SQLException e) {
-            System.err.println("Error uploading leaderboard to database: " + e.getMessage());
-        } finally {
+        }
+
+        for (Map.Entry<String, Future<List<RatingsCollector.Rating>>> read : reads.entrySet()) {
+            String platform = read.getKey();
             try {
-                if (preparedStatement != null) preparedStatement.close();
-                if (conn != null) conn.close();
-            } catch (SQLException e) {
-                System.err.println("Error closing preparedStatement or connection: " + e.getMessage());
+                for (RatingsCollector.Rating rating : read.getValue().get()) {
+                    applyRating(platform, rating.handle(), rating.platformHandle(), rating.rating());
+                }
+                System.out.println(platform + " ratings read successfully.");
+            } catch (ExecutionException e) {
+                System.err.println("Error reading " + platform + " ratings file: " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                System.err.println("Interrupted while reading " + platform + " ratings file");
+                return;
             }
         }
     }
 
     /**
-     * Scraper logic for Codechef
+     * Reads one platform's ratings, from {@code <platform>_ratings.bin} if it exists and from the text export
+     * otherwise.
      *
-     * @param  resultSet   list of users to scrape
+     * @param  platform  the ratings sink's platform name
+     * @return           the ratings in file order
+     * @throws IOException  if neither file can be read
      */
-    private static void scrapeCodechef(ArrayList <User> resultSet) {
-        // Scraper logic for Codechef
-
-        System.out.println("Codechef scraping in progress...");
-
-        String url;
-        URI websiteUrl;
-        URLConnection connection;
-        HttpURLConnection o;
-        InputStream inputStream;
-
-        // create or clear the file for writing
-        File file = new File("codechef_ratings.txt");
-        try {
-            FileWriter writer = new FileWriter(file);
-            writer.write(""); // Clearing the file
-            writer.close();
-        } catch (IOException e) {
-            System.err.println("Error clearing file: " + e.getMessage());
+    private static List<RatingsCollector.Rating> readRatings(String platform) throws IOException {
+        Path binary = RatingsFile.path(platform);
+        if (Files.exists(binary)) {
+            RatingsFile.Contents contents = RatingsFile.read(binary);
+            if (!contents.platform().equals(platform)) {
+                throw new IOException(binary + " holds " + contents.platform() + " ratings");
+            }
+            return contents.ratings();
         }
 
-        int size = resultSet.size();
-        int i = 1;
-
-        for (User user : resultSet) {
-            String handle = user.getHandle();
-            String codechefHandle = user.getCodechefHandle();
-
-            // remove any spaces from the handle
-            codechefHandle = codechefHandle.replace(" ", "");
-
-            System.out.println("(" + i + "/" + size + ") Scraping Codechef for " + handle + " (Codechef Handle: " + codechefHandle + ")");
-            i++;
-
-            try {
-                url = CODECHEF_URL + codechefHandle;
-                websiteUrl = new URI(url);
-                connection = websiteUrl.toURL().openConnection();
-                o = (HttpURLConnection) connection;
-                o.setRequestMethod("GET");
-                if (o.getResponseCode() == HttpURLConnection.HTTP_NOT_FOUND || o.getResponseCode() == HttpURLConnection.HTTP_BAD_REQUEST) {
-                    throw new RuntimeException();
-                }
-                inputStream = o.getInputStream();
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
-                    StringBuilder jsonContent = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        jsonContent.append(line);
-                    }
-                    JSONObject jsonObject = new JSONObject(jsonContent.toString());
-                    int codechefRating;
-                    try {
-                        codechefRating = jsonObject.getInt("currentRating");
-
-                        // update the user object with the codechef rating
-                        user.setCodechefRating(codechefRating);
-
-                        System.out.println("Codechef rating for " + codechefHandle + " is: " + codechefRating);
-                        // Write to a text file
-                        FileWriter writer = new FileWriter("codechef_ratings.txt", true);
-                        writer.write(handle + "," + codechefHandle + "," + codechefRating + "\n");
-                        writer.close();
-                    } catch (JSONException e) {
-                        System.err.println("Error fetching codechef rating for " + codechefHandle + ": " + e.getMessage());
-                    }
-                } catch (JSONException e) {
-                    throw new RuntimeException(e);
-                }
-
-            } catch (URISyntaxException | IOException e) {
-                throw new RuntimeException(e);
+        List<RatingsCollector.Rating> ratings = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(platform + "_ratings.txt"))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] data = line.split(",");
+                ratings.add(new RatingsCollector.Rating(data[0], data[1], Integer.parseInt(data[2])));
             }
-
         }
-
-        System.out.println("Codechef scraping completed.");
-        System.out.println("========================================");
-
+        return ratings;
     }
 
-    private static final int MAX_HANDLES_PER_REQUEST = 380;
-
     /**
-     * Scrapes Codeforces ratings for a list of users and writes the results to a text file.
+     * Sets one rating on the user it belongs to, adding the user to {@link #userMap} if needed.
      *
-     * @param  resultSet  list of User objects to scrape ratings for
-     * @throws CustomScrapingException  if unable to fetch Codeforces rating after 10 retries
+     * @param  platform        the ratings sink's platform name
+     * @param  handle          the student's roster handle
+     * @param  platformHandle  the student's handle on the platform
+     * @param  rating          the rating
+     */
+    private static void applyRating(String platform, String handle, String platformHandle, int rating) {
+        String rosterPlatform = switch (platform) {
+            case "gfg", "gfg_practice" -> "geeksforgeeks";
+            default -> platform;
+        };
+        User user = userMap.computeIfAbsent(handle, h -> new User(h, rosterPlatform, platformHandle));
+        switch (platform) {
+            case "codeforces" -> user.setCodeforcesRating(rating);
+            case "gfg" -> user.setGeeksforgeeksRating(rating);
+            case "gfg_practice" -> user.setgeeksforgeeksPracticeRating(rating);
+            case "leetcode" -> user.setLeetcodeRating(rating);
+            case "codechef" -> user.setCodechefRating(rating);
+            case "hackerrank" -> user.setHackerrankRating(rating);
+            default -> throw new IllegalArgumentException("Unknown ratings platform: " + platform);
+        }
+    }
+
+    /**
+     * Computes every user's percentile from the ratings in {@link #userMap} and exports the leaderboard to the
+     * leaderboard database and the Excel sheet.
      */
-    private static void scrapeCodeforces(ArrayList<User> resultSet) throws CustomScrapingException {
-        // Print a message indicating the start of Codeforces scraping
-        System.out.println("Codeforces scraping in progress...");
+    private static void buildLeaderboard(){
+        List<User> users = new ArrayList<>(userMap.values());
+        ScoreColumns scores = scoreUsers(users);
 
-        // Create or clear the file for writing
-        File file = new File("codeforces_ratings.txt");
+        // Scores are final: save the leaderboard once
         try {
-            FileWriter writer = new FileWriter(file);
-            writer.write(""); // Clearing the file
-            writer.close();
+            LeaderboardStore.write("leaderboard", users);
         } catch (IOException e) {
-            // Print an error message if there's an issue clearing the file
-            System.err.println("Error clearing file: " + e.getMessage());
+            System.err.println(e.getMessage());
         }
 
-        // Split the list of users into chunks
-        List<List<User>> userChunks = splitUsersIntoChunks(resultSet);
-
-        int counter = 1; // Counter for tracking the progress of scraping
-        int totalUsers = resultSet.size(); // Total number of users to scrape
+        // Export the leaderboard with decreasing percentile
+        int[] ranking = scores.ranking();
+        List<User> ranked = rankUsers(users, ranking);
+        recordHistory(users, scores, ranking);
 
-        // Iterate through user chunks for scraping
-        for (List<User> users : userChunks) {
-            int retryCount = 0; // Counter for retry attempts
-            // Retry scraping until successful or until 10 attempts are made
-            while (retryCount < 10) {
-                try {
-                    // Create a list of all the Codeforces handles separated by ";"
-                    String codeforcesHandles = users.stream()
-                            .map(User::getCodeforcesHandle)
-                            .map(handle -> handle.replaceAll(" ", ""))
-                            .collect(Collectors.joining(";"));
-
-                    // Construct the URL with handles
-                    String url = CODEFORCES_URL + codeforcesHandles;
-                    url = url.replaceAll("\t", "");
-                    System.out.println("Codeforces URL: " + url);
-
-                    // Remove any special characters from the URL
-                    url = url.replaceAll("[^\\x00-\\x7F]", "");
-
-                    // Make HTTP request using Jsoup
-                    Document doc = Jsoup.connect(url).ignoreContentType(true).method(org.jsoup.Connection.Method.GET).execute().parse();
-                    String jsonContent = doc.body().text();
-
-                    // Parse JSON response
-                    JSONObject jsonObject = new JSONObject(jsonContent);
-                    JSONArray array = jsonObject.getJSONArray("result");
-
-                    // Process JSON data
-                    for (int i = 0; i < array.length(); i++) {
-                        JSONObject obj = array.getJSONObject(i);
-                        String handle = obj.getString("handle");
-                        int rating = obj.optInt("rating", 0);
-                        System.out.println("(" + counter + "/" + totalUsers + ") " + "Codeforces rating for " + handle + " is: " + rating);
-
-                        // Find user handle with Codeforces handle
-                        User user = users.stream()
-                                .filter(u -> u.getCodeforcesHandle().replace(" ", "").equalsIgnoreCase(handle.replace(" ", "")))
-                                .findFirst()
-                                .orElse(null);
-                        if (user != null) {
-                            // Update the user object with the Codeforces rating
-                            user.setCodeforcesRating(rating);
-                            // Write to a text file
-                            FileWriter writer = new FileWriter("codeforces_ratings.txt", true);
-                            writer.write(user.getHandle() + "," + handle + "," + rating + "\n");
-                            writer.close();
-                        }
-
-                        counter++; // Increment the counter for progress tracking
-                    }
-                    break; // Break out of the retry loop if successful
-                } catch (IOException e) {
-                    retryCount++; // Increment the retry count
-                    System.err.println("Error fetching Codeforces rating. Retrying attempt " + retryCount + ": " + e.getMessage());
-                } catch (JSONException e) {
-                    System.err.println("Error parsing JSON response: " + e.getMessage());
-                }
-            }
-            if (retryCount == 10) {
-                throw new CustomScrapingException("Failed to fetch Codeforces rating after 10 retries.");
-            }
+        try {
+            LeaderboardWebExporter.write(Path.of("Leaderboards", "web"), ranked);
+        } catch (IOException e) {
+            System.err.println("Error writing web leaderboard: " + e.getMessage());
         }
-        // Print a message indicating the completion of Codeforces scraping
-        System.out.println("Codeforces scraping completed.");
-        System.out.println("========================================");
-    }
-    // Custom exception for scraping
-    private static class CustomScrapingException extends Exception {
-        public CustomScrapingException(String message) {
-            super(message);
+        try {
+            LeaderboardExcelExporter.write(Path.of("Leaderboards", "CurrentCMRITLeaderboard2025.xlsx"), ranked);
+        } catch (IOException e) {
+            System.err.println("Error writing leaderboard to file: " + e.getMessage());
         }
     }
 
-
     /**
-     * Splits the list of users into chunks of a specified size.
+     * Computes the composite percentile of each user and sets it on the user; a missing GFG practice rating is set
+     * to 0.
      *
-     * @param  resultSet  the list of users to be split
-     * @return            a list of chunks, each containing a sublist of users
+     * @param  users  the users, in student id order
+     * @return        the computed scores
      */
-    private static List<List<User>> splitUsersIntoChunks(ArrayList<User> resultSet) {
-        // Initialize an empty list to store the chunks
-        List<List<User>> chunks = new ArrayList<>();
-
-        // Get the total number of users
-        int size = resultSet.size();
-
-        // Iterate through the list of users and split them into chunks of size MAX_HANDLES_PER_REQUEST
-        for (int i = 0; i < size; i += MAX_HANDLES_PER_REQUEST) {
-            // Calculate the end index of the chunk
-            int end = Math.min(size, i + MAX_HANDLES_PER_REQUEST);
-
-            // Create a sublist of users and add it to the chunks list
-            chunks.add(new ArrayList<>(resultSet.subList(i, end)));
+    private static ScoreColumns scoreUsers(List<User> users) {
+        // Work on primitive columns rather than the boxed ratings of each User
+        for (User user : users) {
+            if (user.getgeeksforgeeksPracticeRating() == null) {
+                user.setgeeksforgeeksPracticeRating(0);
+            }
         }
-
-        // Return the list of chunks
-        return chunks;
+        ScoreColumns scores = ScoreColumns.of(users);
+        scores.compute();
+        for (int id = 0; id < users.size(); id++) {
+            users.get(id).setPercentile(scores.composite(id));
+        }
+        return scores;
     }
 
-    private static final int MAX_REQUESTS_PER_SECOND = 2;
-    private static final long REQUEST_INTERVAL_MILLIS = 1000 / MAX_REQUESTS_PER_SECOND;
-
-    private static long lastRequestTime = 0;
+    private static List<User> rankUsers(List<User> users, int[] ranking) {
+        List<User> ranked = new ArrayList<>(users.size());
+        for (int id : ranking) {
+            ranked.add(users.get(id));
+        }
+        return ranked;
+    }
 
     /**
-     * Scrapes Leetcode ratings for a list of users and updates their user objects with the ratings.
+     * Builds the leaderboard from the ratings files in memory, without saving or exporting it, and serves it over
+     * HTTP until the process is stopped; see {@link LeaderboardServer} for the endpoints. Every
+     * {@code refreshSeconds} the ratings files are checked, and the ratings of a platform whose file changed are
+     * applied to the live leaderboard, re-ranking only the students whose rating moved.
      *
-     * @param  resultSet  ArrayList of User objects to scrape ratings for
+     * @param  port            the port to listen on
+     * @param  refreshSeconds  how often to check the ratings files; 0 to never refresh
      */
-    private static void scrapeLeetcode(ArrayList<User> resultSet) {
-        // Scraper logic for Leetcode
-        System.out.println("Leetcode scraping in progress...");
-
-        // Create or clear the file for writing
-        File file = new File("leetcode_ratings.txt");
+    private static void serveLeaderboard(int port, int refreshSeconds) {
+        // Taken before the files are read, so a file rewritten while loading is picked up by the first refresh
+        Map<String, FileTime> loaded = new HashMap<>();
+        for (String platform : LEADERBOARD_PLATFORMS) {
+            loaded.put(platform, ratingsFileTime(platform));
+        }
+        loadUsers();
+        loadRatingFiles(LEADERBOARD_PLATFORMS);
+        List<User> users = new ArrayList<>(userMap.values());
+        LiveLeaderboard leaderboard = new LiveLeaderboard(users, scoreUsers(users));
         try {
-            // Clearing the file
-            FileWriter writer = new FileWriter(file);
-            writer.write("");
-            writer.close();
+            LeaderboardServer server = LeaderboardServer.start(port, leaderboard);
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
         } catch (IOException e) {
-            // Error handling
-            System.err.println("Error clearing file: " + e.getMessage());
+            System.err.println("Error starting leaderboard server: " + e.getMessage());
+            System.exit(1);
         }
 
-        int counter = 1;
-        int size = resultSet.size();
-
-        for (User user : resultSet) {
+        if (refreshSeconds > 0) {
+            ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().factory());
+            refresher.scheduleWithFixedDelay(() -> refreshRatings(leaderboard, loaded), refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+        }
+    }
 
-            // Rate limiting
-            long currentTime = System.currentTimeMillis();
-            long timeElapsedSinceLastRequest = currentTime - lastRequestTime;
-            if (timeElapsedSinceLastRequest < REQUEST_INTERVAL_MILLIS) {
-                try {
-                    // Sleep for rate limiting
-                    Thread.sleep(REQUEST_INTERVAL_MILLIS - timeElapsedSinceLastRequest);
-                } catch (InterruptedException e) {
-                    // Interrupted exception handling
-                    Thread.currentThread().interrupt();
-                    throw new RuntimeException("Interrupted while sleeping for rate limiting", e);
-                }
+    /**
+     * Applies the ratings of every platform whose ratings file changed since it was last read.
+     *
+     * @param  leaderboard  the live leaderboard
+     * @param  loaded       each platform's ratings file time as last read, updated here
+     */
+    private static void refreshRatings(LiveLeaderboard leaderboard, Map<String, FileTime> loaded) {
+        for (int platform = 0; platform < LEADERBOARD_PLATFORMS.size(); platform++) {
+            String name = LEADERBOARD_PLATFORMS.get(platform);
+            FileTime modified = ratingsFileTime(name);
+            if (modified == null || modified.equals(loaded.get(name))) {
+                continue;
             }
-            lastRequestTime = System.currentTimeMillis();
-
-            // Construct URL for API request
-            String handle = user.getHandle();
-            String leetcodeHandle = user.getLeetcodeHandle();
-            String encodedLeetcodeHandle = URLEncoder.encode(leetcodeHandle, StandardCharsets.UTF_8);
-
-            String url = LEETCODE_URL + URLEncoder.encode("query{userContestRanking(username:\"" + encodedLeetcodeHandle + "\"){rating}}", StandardCharsets.UTF_8);
-
             try {
-                URI websiteUrl = new URI(url);
-                URLConnection connection = websiteUrl.toURL().openConnection();
-                HttpURLConnection o = (HttpURLConnection) connection;
-
-                // Set request method
-                o.setRequestMethod("GET");
-                if (o.getResponseCode() == HttpURLConnection.HTTP_NOT_FOUND || o.getResponseCode() == HttpURLConnection.HTTP_BAD_REQUEST) {
-                    // Handle specific response codes
-                    if (o.getResponseCode() == 524) {
-                        // Wait and retry for response code 524
-                        Thread.sleep(30000);
-                        o.setRequestMethod("GET");
-                        continue;
-                    }
-                    throw new RuntimeException();
-                }
-
-                // Read response
-                try (InputStream inputStream = connection.getInputStream();
-                     BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
-                    StringBuilder jsonContent = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        jsonContent.append(line);
-                    }
-
-                    // Parse JSON response
-                    int rating = getRating(jsonContent);
-
-                    // Update the user object with the leetcode rating
-                    user.setLeetcodeRating(rating);
-
-                    // Print the rating information
-                    System.out.println("(" + counter + "/" + size + ") " + "Leetcode rating for " + handle + " with leetcode handle " + leetcodeHandle + " is: " + rating);
-
-                    // Write to a text file
-                    FileWriter writer = new FileWriter("leetcode_ratings.txt", true);
-                    writer.write(user.getHandle() + "," + leetcodeHandle + "," + rating + "\n");
-                    writer.close();
-
-                    counter++;
-                } catch (JSONException e) {
-                    // Error handling for JSON parsing
-                    System.err.println("Error fetching leetcode rating for " + handle + " with leetcode handle " + leetcodeHandle + ": " + e.getMessage());
-                } catch (IOException e) {
-                    // Error handling for IO operations
-                    throw new RuntimeException(e);
+                long start = System.nanoTime();
+                Map<String, Integer> ratings = new HashMap<>();
+                for (RatingsCollector.Rating rating : readRatings(name)) {
+                    ratings.put(rating.handle(), rating.rating());
                 }
-            } catch (URISyntaxException | IOException | InterruptedException e) {
-                // General exception handling
-                throw new RuntimeException(e);
+                LiveLeaderboard.Refresh refresh = leaderboard.refresh(platform, ratings);
+                loaded.put(name, modified);
+                System.out.println("Refreshed " + name + " ratings in " + (System.nanoTime() - start) / 1_000_000 + " ms: "
+                        + refresh.changed() + " changed" + (refresh.rebuilt() ? ", every student re-ranked" : "")
+                        + (refresh.unknown() > 0 ? ", " + refresh.unknown() + " handles not on the leaderboard ignored" : "") + ".");
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error refreshing " + name + " ratings: " + e.getMessage());
             }
         }
-
-        System.out.println("Leetcode scraping completed.");
-        System.out.println("========================================");
     }
 
-    private static int getRating(StringBuilder jsonContent) throws JSONException {
-        JSONObject jsonObject = new JSONObject(jsonContent.toString());
-        JSONObject data = jsonObject.optJSONObject("data");
-        JSONObject userContestRanking = data.optJSONObject("userContestRanking");
-
-        int rating = 0; // Default rating is 0
-
-        if (userContestRanking != null) {
-            double rawRating = userContestRanking.optDouble("rating", Double.NaN);
-            if (!Double.isNaN(rawRating)) {
-                // Convert rating to int if it's not NaN
-                rating = (int) rawRating;
+    /**
+     * @return  when the ratings file {@link #readRatings(String)} would read was last modified, or null if there is
+     *          none
+     */
+    private static FileTime ratingsFileTime(String platform) {
+        for (Path file : List.of(RatingsFile.path(platform), Path.of(platform + "_ratings.txt"))) {
+            try {
+                return Files.getLastModifiedTime(file);
+            } catch (IOException e) {
+                // Not there, try the next one
             }
         }
-        return rating;
+        return null;
     }
 
     /**
-     * Scraper logic for GeeksforGeeks
+     * Appends this build's ratings and ranks to the leaderboard history.
      *
-     * @param  trueGfg          list of true GFG users
-     * @param  gfgHandleToUserMap  map of GFG handle to User object
+     * @param  users    the users, in student id order of {@code scores}
+     * @param  scores   the computed scores
+     * @param  ranking  the student ids by rank
      */
-    private static void scrapeGfg(ArrayList<User> trueGfg, Map<String, User> gfgHandleToUserMap){
-        // Scraper logic for GeeksforGeeks
-
-        System.out.println("GeeksforGeeks scraping in progress...");
-
-        // Essential variables
-        String url;
-        int counter = 1;
+    private static void recordHistory(List<User> users, ScoreColumns scores, int[] ranking) {
+        List<String> handles = new ArrayList<>(users.size());
+        for (User user : users) {
+            handles.add(user.getHandle());
+        }
+        int[][] values = new int[RatingsHistory.COLUMNS][];
+        for (int platform = 0; platform < ScoreColumns.PLATFORMS; platform++) {
+            values[platform] = scores.column(platform);
+        }
+        values[RatingsHistory.RANK] = new int[users.size()];
+        for (int rank = 0; rank < ranking.length; rank++) {
+            values[RatingsHistory.RANK][ranking[rank]] = rank + 1;
+        }
 
-        // Create or clear the file for writing
-        File file = new File("gfg_ratings.txt");
-        try {
-            FileWriter writer = new FileWriter(file);
-            writer.write(""); // Clearing the file
-            writer.close();
+        try (RatingsHistory history = RatingsHistory.open(HISTORY_DIR)) {
+            RatingsHistory.Run run = history.append(System.currentTimeMillis(), handles, values);
+            System.out.println("Leaderboard history run " + run.id() + " recorded.");
         } catch (IOException e) {
-            System.err.println("Error clearing file: " + e.getMessage());
+            System.err.println("Error recording leaderboard history: " + e.getMessage());
         }
+    }
 
-        // Overall weekly leaderboard scraping
-
-        for(int j=1;j<=10000;j++) {
-            try {
-                url = GFG_WEEKLY_CONTEST_URL + j;
-
-                System.out.println("Page: " + j);
-
-                // Fetch JSON data from a URL (or you can read from a file)
-                Document doc = Jsoup.connect(url).ignoreContentType(true).get();
-                String json = doc.body().text();
-
-                // Parse JSON using Gson
-                Gson gson = new Gson();
-                DataModel gfguserData = gson.fromJson(json, DataModel.class);
-
-                // Access parsed data
-
-                boolean foundZero = false;
-
-                for (Result gfgUser : gfguserData.results) {
-                    String gfgHandle = gfgUser.user_handle;
-                    User user = gfgHandleToUserMap.get(gfgHandle.toLowerCase());
-                    if (gfgUser.user_score == 0) {
-                        foundZero = true;
-                        break;
+    /**
+     * Answers a question about the leaderboard history. With {@code --student=<handle>} prints the student's ratings
+     * and rank after every build; otherwise prints how ranks moved between two builds, by default the last two.
+     * {@code --to=<run>} picks the later build, {@code --from=<run>} the earlier one, or {@code --days=N} the last
+     * build at least N days before the later one; {@code --limit=N} caps the students listed (default 20).
+     */
+    private static void showHistory() {
+        try (RatingsHistory history = RatingsHistory.open(HISTORY_DIR)) {
+            List<RatingsHistory.Run> runs = history.runs();
+            if (runs.isEmpty()) {
+                System.out.println("No leaderboard history yet.");
+                return;
+            }
+            long start = System.nanoTime();
+
+            String student = options.get("student");
+            if (student != null) {
+                List<RatingsHistory.Point> points = history.series(student);
+                if (points.isEmpty()) {
+                    System.out.println("No history for " + student + ".");
+                    return;
+                }
+                System.out.println("run\trecorded at\t" + String.join("\t", RatingsHistory.COLUMN_NAMES));
+                for (RatingsHistory.Point point : points) {
+                    StringBuilder line = new StringBuilder(point.run().id() + "\t" + Instant.ofEpochMilli(point.run().recordedAt()));
+                    for (int value : point.values()) {
+                        line.append('\t').append(value);
                     }
-                    if (user != null) {
-                        user.setGeeksforgeeksRating((int)gfgUser.user_score);
-                        System.out.println("(" + counter + "/" + trueGfg.size() + ") " + "GFG weekly contest rating for " + user.getHandle() + " with GFG handle " + gfgHandle + " is: " + (int)gfgUser.user_score);
-                        // Write to a text file
-                        FileWriter writer = new FileWriter("gfg_ratings.txt", true);
-                        writer.write(user.getHandle() + "," + gfgHandle + "," + (int)gfgUser.user_score + "\n");
-                        writer.close();
-                        counter++;
+                    System.out.println(line);
+                }
+            } else {
+                RatingsHistory.Run to = runs.get(Math.min(intOption("to", runs.size() - 1), runs.size() - 1));
+                RatingsHistory.Run from = runs.get(Math.max(intOption("from", to.id() - 1), 0));
+                if (hasOption("days")) {
+                    long cutoff = to.recordedAt() - TimeUnit.DAYS.toMillis(intOption("days", 7));
+                    from = runs.get(0);
+                    for (RatingsHistory.Run run : runs) {
+                        if (run.recordedAt() <= cutoff) {
+                            from = run;
+                        }
                     }
                 }
 
-                if (foundZero) {
-                    break;
+                List<RatingsHistory.RankChange> changes = history.rankChanges(from.id(), to.id());
+                // Biggest climbers first; students who joined or left are listed after those ranked in both runs
+                changes.sort(Comparator
+                        .comparing((RatingsHistory.RankChange change) -> change.fromRank() == 0 || change.toRank() == 0)
+                        .thenComparingInt(change -> change.toRank() - change.fromRank())
+                        .thenComparingInt(RatingsHistory.RankChange::toRank));
+                System.out.println("Rank changes from run " + from.id() + " (" + Instant.ofEpochMilli(from.recordedAt())
+                        + ") to run " + to.id() + " (" + Instant.ofEpochMilli(to.recordedAt()) + "):");
+                int limit = intOption("limit", 20);
+                for (RatingsHistory.RankChange change : changes.subList(0, Math.min(limit, changes.size()))) {
+                    String move;
+                    if (change.fromRank() == 0) {
+                        move = "new";
+                    } else if (change.toRank() == 0) {
+                        move = "left";
+                    } else {
+                        int delta = change.fromRank() - change.toRank();
+                        move = delta > 0 ? "+" + delta : String.valueOf(delta);
+                    }
+                    System.out.println(change.handle() + "\t" + change.fromRank() + " -> " + change.toRank() + "\t" + move);
                 }
-            } catch (IOException e) {
-                System.err.println("Error fetching GFG Practice rating: " + e.getMessage());
             }
+            System.out.println("Answered in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms from " + runs.size() + " runs.");
+        } catch (IOException e) {
+            System.err.println("Error reading leaderboard history: " + e.getMessage());
         }
+    }
 
-        // set all unset ratings to 0
-        for (User user : trueGfg) {
-            if (user.getGeeksforgeeksRating() == null) {
-                user.setGeeksforgeeksRating(0);
-                System.out.println("(" + counter + "/" + trueGfg.size() + ") " + "GFG overall rating for " + user.getHandle() + " with GFG handle " + user.getGeeksforgeeksHandle() + " is: " + 0);
-
-                try{
-                    FileWriter writer = new FileWriter("gfg_ratings.txt", true);
-                    writer.write(user.getHandle() + "," + user.getGeeksforgeeksHandle() + "," + 0 + "\n");
-                    writer.close();
-                    counter++;
-                } catch (IOException e) {
-                    System.err.println("Error fetching GFG contest rating: " + e.getMessage());
-                }
-            }
+    /**
+     * Times the composite percentile computation on a synthetic cohort: the per-user loop over boxed {@link User}
+     * ratings the leaderboard used to run, against {@link ScoreColumns}, both with and without copying the users
+     * into columns first. Each variant is warmed up and then run {@code rounds} times; the best time is reported.
+     * Then times re-ranking after a single rating refresh, through {@link RankIndex} against sorting every student
+     * again, reporting the mean of {@code updates} random refreshes.
+     *
+     * @param  students  the number of synthetic students
+     * @param  rounds    timed runs per variant
+     * @param  updates   random single-rating refreshes to time
+     */
+    private static void benchmarkScores(int students, int rounds, int updates) {
+        Random random = new Random(42);
+        List<User> users = new ArrayList<>(students);
+        for (int i = 0; i < students; i++) {
+            User user = new User("student" + i, "codeforces", "cf" + i);
+            // Roughly a third of the students have no rating on any given platform
+            user.setCodeforcesRating(random.nextInt(3) == 0 ? 0 : random.nextInt(3500));
+            user.setGeeksforgeeksRating(random.nextInt(3) == 0 ? 0 : random.nextInt(3000));
+            user.setgeeksforgeeksPracticeRating(random.nextInt(3) == 0 ? 0 : random.nextInt(5000));
+            user.setLeetcodeRating(random.nextInt(3) == 0 ? 0 : random.nextInt(3000));
+            user.setCodechefRating(random.nextInt(3) == 0 ? 0 : random.nextInt(3000));
+            user.setHackerrankRating(random.nextInt(3) == 0 ? 0 : random.nextInt(10000));
+            users.add(user);
         }
+        System.out.println("Benchmarking composite scores for " + students + " students, " + rounds + " rounds...");
 
-        System.out.println("GFG overall scraping completed.");
-        System.out.println("========================================");
+        long boxed = bestOf(rounds, () -> computeBoxedPercentiles(users));
+        ScoreColumns prebuilt = ScoreColumns.of(users);
+        long columnsOnly = bestOf(rounds, prebuilt::compute);
+        long withCopy = bestOf(rounds, () -> ScoreColumns.of(users).compute());
 
+        for (int id = 0; id < students; id++) {
+            if (Double.compare(users.get(id).getPercentile(), prebuilt.composite(id)) != 0) {
+                System.err.println("Mismatch for " + users.get(id).getHandle() + ": " + users.get(id).getPercentile() + " vs " + prebuilt.composite(id));
+                return;
+            }
+        }
+        System.out.printf("Per-user boxed ratings:  %8.3f ms%n", boxed / 1e6);
+        System.out.printf("Columns:                 %8.3f ms (%.1fx)%n", columnsOnly / 1e6, (double) boxed / columnsOnly);
+        System.out.printf("Columns incl. copy-in:   %8.3f ms (%.1fx)%n", withCopy / 1e6, (double) boxed / withCopy);
+
+        // Re-ranking after one student's rating is refreshed: the rank index against a full re-sort
+        long fullRank = bestOf(rounds, prebuilt::ranking);
+        RankIndex index = new RankIndex(prebuilt);
+        int rebuilds = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < updates; i++) {
+            int platform = random.nextInt(ScoreColumns.PLATFORMS);
+            // Below the platform's best, as most refreshes are; the best student dropping still rebuilds
+            if (index.update(random.nextInt(students), platform, random.nextInt(Math.max(1, prebuilt.maxRating(platform))))) {
+                rebuilds++;
+            }
+        }
+        long perUpdate = (System.nanoTime() - start) / updates;
+        if (!Arrays.equals(index.top(students), prebuilt.ranking())) {
+            System.err.println("Rank index order differs from a full ranking after " + updates + " updates");
+            return;
+        }
+        System.out.printf("Full re-rank:            %8.3f ms%n", fullRank / 1e6);
+        System.out.printf("Rank index update:       %8.3f ms (%d updates, %d rebuilt every rank)%n", perUpdate / 1e6, updates, rebuilds);
     }
 
     /**
-     * Scrapes GeeksforGeeks practice ratings for users and updates their ratings in the provided data structures
-     *
-     * @param  trueGfg           ArrayList of User objects to update practice ratings for
-     * @param  gfgHandleToUserMap   Map of String to User for quick access to user data
+     * The per-user computation {@link #buildLeaderboard()} did before {@link ScoreColumns}, kept as the benchmark's
+     * baseline.
      */
-    private static void scrapeGfgPractice(ArrayList<User> trueGfg, Map<String, User> gfgHandleToUserMap){
-        // Display progress message
-        System.out.println("GeeksforGeeks scraping in progress...");
-
-        // Clear the file for writing
-        File file = new File("gfg_practice_ratings.txt");
-        try {
-            FileWriter writer = new FileWriter(file);
-            writer.write(""); // Clearing the file
-            writer.close();
-        } catch (IOException e) {
-            System.err.println("Error clearing file: " + e.getMessage());
+    private static void computeBoxedPercentiles(List<User> users) {
+        int maxCodeforcesRating = 0;
+        int maxGeeksforgeeksRating = 0;
+        int maxGeeksforgeeksPracticeRating = 0;
+        int maxLeetcodeRating = 0;
+        int maxCodechefRating = 0;
+        int maxHackerrankRating = 0;
+        for (User user : users) {
+            maxCodeforcesRating = Math.max(maxCodeforcesRating, user.getCodeforcesRating());
+            maxGeeksforgeeksRating = Math.max(maxGeeksforgeeksRating, user.getGeeksforgeeksRating());
+            maxGeeksforgeeksPracticeRating = Math.max(maxGeeksforgeeksPracticeRating, user.getgeeksforgeeksPracticeRating());
+            maxLeetcodeRating = Math.max(maxLeetcodeRating, user.getLeetcodeRating());
+            maxCodechefRating = Math.max(maxCodechefRating, user.getCodechefRating());
+            maxHackerrankRating = Math.max(maxHackerrankRating, user.getHackerrankRating());
         }
+        for (User user : users) {
+            double cf = percentOfMax(user.getCodeforcesRating(), maxCodeforcesRating);
+            double gfgs = percentOfMax(user.getGeeksforgeeksRating(), maxGeeksforgeeksRating);
+            double gfgp = percentOfMax(user.getgeeksforgeeksPracticeRating(), maxGeeksforgeeksPracticeRating);
+            double lc = percentOfMax(user.getLeetcodeRating(), maxLeetcodeRating);
+            double cc = percentOfMax(user.getCodechefRating(), maxCodechefRating);
+            double hr = percentOfMax(user.getHackerrankRating(), maxHackerrankRating);
+            user.setPercentile( cf * 0.3 + gfgs*0.3  + gfgp*0.1 + lc*0.1 + cc*0.1 + hr*0.1 );
+        }
+    }
 
-        System.out.println("GFG practice scraping in progress...");
-
-        int counter = 1;
-
-        // Overall Practice score scraping
-        for(int j=1;j<=100;j++) {
-            try {
-                // Construct URL for practice scores
-                String url = GFG_PRACTICE_URL + j + "&page_size=1000";
+    private static double percentOfMax(int rating, int maxRating) {
+        return maxRating == 0 ? 0 : (double) rating / maxRating * 100;
+    }
 
-                System.out.println("Page: " + j);
+    /**
+     * @return  the fastest of {@code rounds} timed runs of {@code task}, in nanoseconds, after as many warm-up runs
+     */
+    private static long bestOf(int rounds, Runnable task) {
+        for (int i = 0; i < rounds; i++) {
+            task.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
 
-                // Check if URL exists else break
-                URI uri = new URI(url);
-                HttpURLConnection exists = (HttpURLConnection) uri.toURL().openConnection();
-                exists.setRequestMethod("GET");
-                if (exists.getResponseCode() == HttpURLConnection.HTTP_NOT_FOUND || exists.getResponseCode() == HttpURLConnection.HTTP_BAD_REQUEST) {
-                    break;
-                }
-                try {
-                    Thread.sleep(1000);
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
+    private static final int RESUME_MAX_AGE_HOURS = 24;
+    private static final int CACHE_TTL_HOURS = 72;
 
-                // Fetch JSON data from the URL
-                Document doc = Jsoup.connect(url).ignoreContentType(true).get();
-                String json = doc.body().text();
-
-                // Parse JSON using Gson
-                Gson gson = new Gson();
-                GeeksforgeeksStatsResponse gfguserData = gson.fromJson(json, GeeksforgeeksStatsResponse.class);
-
-                // Access parsed data and update user ratings
-                for (GeeksforgeeksStatsResult gfgUser : gfguserData.getResults()) {
-                    String gfgHandle = gfgUser.getHandle();
-                    User user = gfgHandleToUserMap.get(gfgHandle.toLowerCase());
-                    if (user != null) {
-                        user.setgeeksforgeeksPracticeRating(gfgUser.getCodingScore());
-                        System.out.println("(" + counter + "/" + trueGfg.size() + ") " + "GFG practice contest rating for " + user.getHandle() + " with GFG handle " + gfgHandle + " is: " + gfgUser.getCodingScore());
-                        // Write to a text file
-                        FileWriter writer = new FileWriter("gfg_practice_ratings.txt", true);
-                        writer.write(user.getHandle() + "," + gfgHandle + "," + gfgUser.getCodingScore() + "\n");
-                        writer.close();
-                        counter++;
-                    }
-                }
-            } catch (IOException e) {
-                System.err.println("Error fetching GFG Practice rating: " + e.getMessage());
-            } catch (URISyntaxException e) {
-                throw new RuntimeException(e);
+    /**
+     * Writes the handles that could not be scraped to {@code <platform>_failures.txt}, one
+     * "handle,platformHandle,reason" line each, so they can be inspected or retried later.
+     *
+     * @param  platform        platform name used as the file prefix
+     * @param  failures        failures returned by a {@link ParallelFetcher}
+     * @param  platformHandle  extracts the platform handle from a user
+     */
+    static void writeFailures(String platform, List<ParallelFetcher.Failure<User>> failures, Function<User, String> platformHandle) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(platform + "_failures.txt"))) {
+            for (ParallelFetcher.Failure<User> failure : failures) {
+                User user = failure.item();
+                System.err.println("Failed to scrape " + platform + " for " + user.getHandle() + ": " + failure.reason());
+                writer.write(user.getHandle() + "," + platformHandle.apply(user) + "," + failure.reason().replace('\n', ' ') + "\n");
             }
+        } catch (IOException e) {
+            System.err.println("Error writing " + platform + " failures: " + e.getMessage());
         }
-        System.out.println("GFG practice scraping from institute page completed.");
-
-        // Set up Firefox Options for headless scraping
-        FirefoxOptions options = new FirefoxOptions();
-        options.addArguments("-headless");
-
-        // Initialize Firefox driver and navigate to the website
-        WebDriver driver = new FirefoxDriver(options);
-        driver.get("https://auth.geeksforgeeks.org/");
+    }
 
-        try {
-            // Find username and password fields and enter credentials
-            WebElement username = driver.findElement(By.id("luser"));
-            WebElement password = driver.findElement(By.id("password"));
-            String gfgUsername = System.getenv("GFG_USERNAME");
-            String gfgPassword = System.getenv("GFG_PASSWORD");
-            username.sendKeys(gfgUsername);
-            password.sendKeys(gfgPassword);
-
-            // Click on the sign-in button
-            WebElement signInButton = driver.findElement(By.className("signin-button"));
-            signInButton.click();
-
-            // Add a delay for demonstration purposes
-            Thread.sleep(5000);
-
-            // Iterate over users to fetch practice ratings if not already available
-            for (User user : trueGfg) {
-                if (user.getgeeksforgeeksPracticeRating() == null) {
-                    // Open user profile and get the rating
-                    String gfgHandle = user.getGeeksforgeeksHandle();
-                    System.out.println("Practice rating not found for " + user.getHandle() + " with GFG handle " + gfgHandle + ". Fetching from profile...");
-                    driver.get(GFG_URL + gfgHandle);
-                    try {
-                        Thread.sleep(2000);
-                    } catch (InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-                    // Fetch and parse practice rating
-                    try {
-                        WebElement scoreCardValue = driver.findElement(By.xpath("//span[contains(text(), 'Overall Coding Score')]/following-sibling::br/following-sibling::span"));
-                        int gfgRating = 0;
-                        try {
-                            gfgRating = Integer.parseInt(scoreCardValue.getText());
-                        } catch (NumberFormatException e) {
-                            System.err.println("Error parsing GFG practice contest rating for " + gfgHandle + ": " + e.getMessage());
-                        }
-                        user.setgeeksforgeeksPracticeRating(gfgRating);
-
-                        System.out.println("(" + counter + "/" + trueGfg.size() + ") " + "GFG practice contest rating for " + user.getHandle() + " with GFG handle " + user.getGeeksforgeeksHandle() + " is: " + gfgRating);
-                        FileWriter writer = new FileWriter("gfg_practice_ratings.txt", true);
-                        writer.write(user.getHandle() + "," + gfgHandle + "," + gfgRating + "\n");
-                        writer.close();
-                        counter++;
-                    } catch (NoSuchElementException | IOException e) {
-                        System.err.println("Error fetching GFG practice contest rating for " + gfgHandle + ": " + e.getMessage());
-                    }
+    /**
+     * Connects a per-handle scraper's sink to the platform's progress journal. With {@code --resume}, ratings
+     * journaled by an interrupted run within the last {@code --resume-max-age-hours} are copied into the sink and
+     * those users are skipped; otherwise the journal is cleared and the run starts from scratch.
+     *
+     * @param  journal  the platform's progress journal
+     * @param  sink     the sink for this run
+     * @param  users    every user the run should cover
+     * @return          the users that still have to be fetched
+     * @throws IOException  if the journal cannot be read or the resumed ratings cannot be written
+     */
+    static ArrayList<User> resumeFromJournal(ScrapeJournal journal, RatingsSink sink, ArrayList<User> users) throws IOException {
+        ArrayList<User> pending = users;
+        if (hasOption("resume")) {
+            long maxAgeMillis = TimeUnit.HOURS.toMillis(intOption("resume-max-age-hours", RESUME_MAX_AGE_HOURS));
+            Map<String, ScrapeJournal.Entry> done = journal.load(maxAgeMillis);
+            pending = new ArrayList<>();
+            for (User user : users) {
+                ScrapeJournal.Entry entry = done.get(user.getHandle());
+                if (entry == null) {
+                    pending.add(user);
+                } else {
+                    sink.write(user.getHandle(), entry.platformHandle(), entry.rating(), entry.recordedAt());
                 }
             }
-        } catch (Exception e) {
-            System.out.println("Error: " + e.getMessage());
-        } finally {
-            // Close the browser
-            driver.quit();
+            System.out.println("Resuming " + sink.getPlatform() + " scrape: " + (users.size() - pending.size()) + " handles already done, " + pending.size() + " remaining.");
+        } else {
+            journal.clear();
         }
+        // Attach after replaying, the resumed ratings are already in the journal
+        sink.addListener(journal);
+        return pending;
     }
 
-    static class DataModel {
-        int count;
-        Result[] results;
-        boolean consider_for_geek_bits;
+    /**
+     * Opens a platform's progress journal on the shared database connection.
+     *
+     * @param  platform  the platform whose run is journaled
+     * @return           the journal
+     * @throws IOException  if the database is not open or the journal table cannot be created
+     */
+    static ScrapeJournal openJournal(String platform) throws IOException {
+        if (ratingsDatabase == null) {
+            throw new IOException("Cannot journal " + platform + ": the " + DB_NAME + " database is not open");
+        }
+        return ScrapeJournal.open(ratingsDatabase, platform);
     }
 
-    static class Result {
-        int user_id;
-        String user_handle;
-        double user_score;
-        int user_rank;
+    /**
+     * Opens the ratings sink for a platform with the ratings cache attached, so every scrape keeps the cache
+     * current, and in pipeline mode the collector the leaderboard is built from.
+     *
+     * @param  platform  the platform name, used as the file prefix
+     * @return           a new sink
+     * @throws IOException  if the sink cannot be created
+     */
+    static RatingsSink openRatingsSink(String platform) throws IOException {
+        // The pipeline keeps ratings in memory; the files are then only written on request, for debugging
+        RatingsSink sink = RatingsSink.open(platform, ratingsCollector == null || hasOption("debug-files"), hasOption("text-ratings"));
+        if (ratingsCache != null) {
+            sink.addListener(ratingsCache);
+        }
+        if (ratingsCollector != null) {
+            sink.addListener(ratingsCollector);
+        }
+        return sink;
     }
 
-    static class GeeksforgeeksStatsResponse {
-
-        @SerializedName("page_size")
-        private int pageSize;
-        private int count;
-        private String next;
-        private String previous;
-        private List<GeeksforgeeksStatsResult> results;
-
-        // Getters and setters
-        public List<GeeksforgeeksStatsResult> getResults() {return results;}
+    /**
+     * In incremental mode, finds the users whose rating on {@code platform} was fetched within {@code --ttl-hours}
+     * and whose platform handle has not changed since.
+     *
+     * @param  platform        the platform, as named by its sink
+     * @param  users           the users to look up
+     * @param  platformHandle  extracts the platform handle from a user
+     * @return                 the fresh cache entries by user; empty when not in incremental mode
+     * @throws IOException     if the cache cannot be read
+     */
+    private static Map<User, RatingsCache.Entry> freshCachedRatings(String platform, List<User> users, Function<User, String> platformHandle) throws IOException {
+        Map<User, RatingsCache.Entry> fresh = new HashMap<>();
+        if (!hasOption("incremental") || ratingsCache == null) {
+            return fresh;
+        }
+        long ttlMillis = TimeUnit.HOURS.toMillis(intOption("ttl-hours", CACHE_TTL_HOURS));
+        Map<String, RatingsCache.Entry> cached = ratingsCache.loadFresh(platform, ttlMillis);
+        for (User user : users) {
+            RatingsCache.Entry entry = cached.get(user.getHandle());
+            if (entry != null && entry.platformHandle() != null && platformHandle.apply(user) != null
+                    && entry.platformHandle().replace(" ", "").equalsIgnoreCase(platformHandle.apply(user).replace(" ", ""))) {
+                fresh.put(user, entry);
+            }
+        }
+        return fresh;
     }
 
-    static class GeeksforgeeksStatsResult {
-
-        @SerializedName("user_id")
-        private int userId;
-        private String handle;
-        @SerializedName("coding_score")
-        private int codingScore;
-        @SerializedName("total_problems_solved")
-        private int totalProblemsSolved;
-        @SerializedName("potd_longest_streak")
-        private Integer potdLongestStreak;
-
-        // Getters and setters
-        public String getHandle() {return handle;}
-        public int getCodingScore() {return codingScore;}
+    /**
+     * In incremental mode, writes the cached rating of every user that is still fresh to the sink and returns the
+     * users that have to be fetched again. Outside incremental mode all users are returned.
+     *
+     * @param  sink            the sink for this run
+     * @param  users           every user the run should cover
+     * @param  platformHandle  extracts the platform handle from a user
+     * @return                 the users whose cached rating is missing or older than the TTL
+     * @throws IOException     if the cache cannot be read or the cached ratings cannot be written
+     */
+    static ArrayList<User> reuseFreshRatings(RatingsSink sink, ArrayList<User> users, Function<User, String> platformHandle) throws IOException {
+        Map<User, RatingsCache.Entry> fresh = freshCachedRatings(sink.getPlatform(), users, platformHandle);
+        if (fresh.isEmpty()) {
+            return users;
+        }
+        ArrayList<User> stale = new ArrayList<>();
+        for (User user : users) {
+            RatingsCache.Entry entry = fresh.get(user);
+            if (entry == null) {
+                stale.add(user);
+            } else {
+                sink.write(user.getHandle(), entry.platformHandle(), entry.value(), entry.fetchedAt());
+            }
+        }
+        System.out.println("Incremental " + sink.getPlatform() + " scrape: reusing " + fresh.size() + " cached ratings, fetching " + stale.size() + ".");
+        return stale;
     }
 
     /**
-     * Scrapes and updates the Hackerrank ratings for the given users
+     * For scrapers that walk a whole contest leaderboard rather than fetching handle by handle: in incremental mode,
+     * if every user's cached rating is fresh, writes them all to the sink so the walk can be skipped.
      *
-     * @param trueHackerrank          List of User objects with Hackerrank accounts
-     * @param hackerrankHandleToUserMap   Map of Hackerrank handles to User objects
+     * @param  sink            the sink for this run
+     * @param  users           every user the run should cover
+     * @param  platformHandle  extracts the platform handle from a user
+     * @return                 true if every rating came from the cache
+     * @throws IOException     if the cache cannot be read or the cached ratings cannot be written
      */
-    private static void scrapeHackerrank(ArrayList<User> trueHackerrank, Map<String, User> hackerrankHandleToUserMap) {
-        // Scraper logic for Hackerrank
-        System.out.println("Hackerrank scraping in progress...");
-
-        // create or clear the file for writing
-        File file = new File("hackerrank_ratings.txt");
-        try {
-            FileWriter writer = new FileWriter(file);
-            writer.write(""); // Clearing the file
-            writer.close();
-        } catch (IOException e) {
-            System.err.println("Error clearing file: " + e.getMessage());
+    static boolean reuseIfAllFresh(RatingsSink sink, ArrayList<User> users, Function<User, String> platformHandle) throws IOException {
+        Map<User, RatingsCache.Entry> fresh = freshCachedRatings(sink.getPlatform(), users, platformHandle);
+        if (fresh.isEmpty() || fresh.size() < users.size()) {
+            return false;
         }
-
-        try {
-            // Iterate over search tokens
-            for (String trackerName : SEARCH_TOKENS) {
-                if (trackerName.equals("null")) break;
-                System.out.println(trackerName);
-                // Iterate over leaderboard page offsets
-                for (int j = 0; j < 10000; j += 100) {
-                    try {
-                        // Construct the leaderboard URL
-                        String url = "https://www.hackerrank.com/rest/contests/" + trackerName + "/leaderboard?offset=" + j + "&limit=100";
-                        Document doc = Jsoup.connect(url).ignoreContentType(true).get();
-                        Element body = doc.body();
-                        if (body.text().contains("INVALID URL")) {
-                            throw new ArithmeticException("INVALID URL : " + trackerName);
-                        }
-                        String jsonContent = body.text();
-                        Leaderboard leaderboard = new Gson().fromJson(jsonContent, Leaderboard.class);
-                        List<LeaderboardModel> models = leaderboard.models;
-                        if (models.isEmpty()) break;
-                        // Iterate over leaderboard models
-                        for (LeaderboardModel model : models) {
-                            String userHandle = model.hacker.toLowerCase();
-
-                            // Find user handle in the map
-                            User user = hackerrankHandleToUserMap.get(userHandle);
-                            if (user != null) {
-                                // Update user's Hackerrank rating
-                                if (user.getHackerrankRating() == null) {
-                                    user.setHackerrankRating((int) model.score);
-                                } else {
-                                    user.setHackerrankRating(user.getHackerrankRating() + (int) model.score);
-                                }
-                                System.out.println("Hackerrank rating for " + userHandle + " is: " + (int) model.score);
-                            } else {
-                                System.out.println("User not found: " + userHandle);
-                            }
-                        }
-                    } catch (IOException | ArithmeticException e) {
-                        System.err.println("Error fetching Hackerrank rating for " + trackerName + ": " + e.getMessage());
-                    }
-                }
-            }
-            // Write Hackerrank ratings to file
-            for (User user : trueHackerrank) {
-                if (user.getHackerrankRating() != null) {
-                    FileWriter writer = new FileWriter("hackerrank_ratings.txt", true);
-                    writer.write(user.getHandle() + "," + user.getHackerrankHandle() + "," + user.getHackerrankRating() + "\n");
-                    writer.close();
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error fetching Hackerrank rating: " + e.getMessage());
+        for (User user : users) {
+            RatingsCache.Entry entry = fresh.get(user);
+            sink.write(user.getHandle(), entry.platformHandle(), entry.value(), entry.fetchedAt());
         }
+        System.out.println("Incremental " + sink.getPlatform() + " scrape: all " + users.size() + " cached ratings are fresh, skipping.");
+        return true;
     }
 
-    static class Leaderboard {
-        List<LeaderboardModel> models;
+    // Custom exception for scraping
+    static class CustomScrapingException extends Exception {
+        public CustomScrapingException(String message) {
+            super(message);
+        }
     }
 
-    static class LeaderboardModel {
-        String hacker;
-        double score;
+    /**
+     * Fetches a leaderboard-shaped JSON response and decodes it as it streams in, keeping only the rows
+     * {@code keep} accepts.
+     *
+     * @param  url          the URL to fetch
+     * @param  rowsField    name of the top-level array holding the rows
+     * @param  handleField  name of the handle field in a row
+     * @param  scoreField   name of the score field in a row
+     * @param  keep         decides from the handle whether a row is kept
+     * @return              the decoded page
+     * @throws IOException  if the request fails, the status is not 2xx or the JSON is not as expected
+     */
+    static LeaderboardJson.Page fetchLeaderboardPage(String url, String rowsField, String handleField, String scoreField,
+                                                     Predicate<String> keep) throws IOException {
+        try (ScraperHttpClient.Response response = HTTP.get(url)) {
+            response.requireSuccess();
+            return LeaderboardJson.read(response.body(), rowsField, handleField, scoreField, keep);
+        }
     }
 
     /**
@@ -1584,181 +1089,3 @@ public class CMRITLeaderboard2025 {
         }
     }
 }
-
-/**
- * Represents a user with various handles and ratings on different platforms.
- * The User class provides methods to get and set the user's handles and ratings on platforms such as Codeforces, GeeksforGeeks, LeetCode, Codechef, and Hackerrank.
- * 
- * The User class has the following attributes:
- * - handle: The user's handle or username.
- * - codeforcesHandle: The user's handle on Codeforces platform.
- * - geeksforgeeksHandle: The user's handle on GeeksforGeeks platform.
- * - leetcodeHandle: The user's handle on LeetCode platform.
- * - codechefHandle: The user's handle on Codechef platform.
- * - hackerrankHandle: The user's handle on Hackerrank platform.
- * - codeforcesRating: The user's rating on Codeforces platform.
- * - geeksforgeeksRating: The user's rating on GeeksforGeeks platform.
- * - geeksforgeeksPracticeRating: The user's practice rating on GeeksforGeeks platform.
- * - leetcodeRating: The user's rating on LeetCode platform.
- * - codechefRating: The user's rating on Codechef platform.
- * - hackerrankRating: The user's rating on Hackerrank platform.
- * - percentile: The user's percentile.
- * 
- * The User class provides the following methods:
- * - getHandle(): Returns the user's handle.
- * - getCodeforcesHandle(): Returns the user's handle on Codeforces platform.
- * - getGeeksforgeeksHandle(): Returns the user's handle on GeeksforGeeks platform.
- * - getLeetcodeHandle(): Returns the user's handle on LeetCode platform.
- * - getCodechefHandle(): Returns the user's handle on Codechef platform.
- * - getHackerrankHandle(): Returns the user's handle on Hackerrank platform.
- * - getCodeforcesRating(): Returns the user's rating on Codeforces platform.
- * - getGeeksforgeeksRating(): Returns the user's rating on GeeksforGeeks platform.
- * - getgeeksforgeeksPracticeRating(): Returns the user's practice rating on GeeksforGeeks platform.
- * - getLeetcodeRating(): Returns the user's rating on LeetCode platform.
- * - getCodechefRating(): Returns the user's rating on Codechef platform.
- * - getHackerrankRating(): Returns the user's rating on Hackerrank platform.
- * - getPercentile(): Returns the user's percentile.
- * - setCodeforcesRating(Integer codeforcesRating): Sets the user's rating on Codeforces platform.
- * - setGeeksforgeeksRating(Integer geeksforgeeksRating): Sets the user's rating on GeeksforGeeks platform.
- * - setgeeksforgeeksPracticeRating(Integer geeksforgeeksPracticeRating): Sets the user's practice rating on GeeksforGeeks platform.
- * - setLeetcodeRating(Integer leetcodeRating): Sets the user's rating on LeetCode platform.
- * - setCodechefRating(Integer codechefRating): Sets the user's rating on Codechef platform.
- * - setHackerrankRating(Integer hackerrankRating): Sets the user's rating on Hackerrank platform.
- * - setPercentile(Double percentile): Sets the user's percentile.
- */
-
-class User {
-    private String handle;
-    private String codeforcesHandle;
-    private String geeksforgeeksHandle;
-    private String leetcodeHandle;
-    private String codechefHandle;
-    private String hackerrankHandle;
-
-    private Integer codeforcesRating;
-    private Integer geeksforgeeksRating;
-    private Integer geeksforgeeksPracticeRating;
-    private Integer leetcodeRating;
-    private Integer codechefRating;
-    private Integer hackerrankRating;
-    private Double percentile;
-
-    public User(String handle, String platform, String username) {
-        this.handle = handle;
-        switch (platform) {
-            case "codeforces" -> this.codeforcesHandle = username;
-            case "geeksforgeeks" -> this.geeksforgeeksHandle = username;
-            case "leetcode" -> this.leetcodeHandle = username;
-            case "codechef" -> this.codechefHandle = username;
-            case "hackerrank" -> this.hackerrankHandle = username;
-        }
-        // set all ratings to 0
-        this.codeforcesRating = 0;
-        this.geeksforgeeksRating = 0;
-        this.geeksforgeeksPracticeRating = null;
-        this.leetcodeRating = 0;
-        this.codechefRating = 0;
-        this.hackerrankRating = 0;
-    }
-
-    public User(String handle, String codeforcesHandle, String geeksforgeeksHandle, String leetcodeHandle, String codechefHandle, String hackerrankHandle) {
-        this.handle = handle;
-        this.codeforcesHandle = codeforcesHandle;
-        this.geeksforgeeksHandle = geeksforgeeksHandle;
-        this.leetcodeHandle = leetcodeHandle;
-        this.codechefHandle = codechefHandle;
-        this.hackerrankHandle = hackerrankHandle;
-        // set all ratings to 0
-        this.codeforcesRating = 0;
-        this.geeksforgeeksRating = 0;
-        this.geeksforgeeksPracticeRating = null;
-        this.leetcodeRating = 0;
-        this.codechefRating = 0;
-        this.hackerrankRating = 0;
-    }
-
-    // getters
-
-    public String getHandle() {
-        return handle;
-    }
-
-    public String getCodeforcesHandle() {
-        return codeforcesHandle;
-    }
-
-    public String getGeeksforgeeksHandle() {
-        return geeksforgeeksHandle;
-    }
-
-    public String getLeetcodeHandle() {
-        return leetcodeHandle;
-    }
-
-    public String getCodechefHandle() {
-        return codechefHandle;
-    }
-
-    public String getHackerrankHandle() {
-        return hackerrankHandle;
-    }
-
-    public Integer getCodeforcesRating() {
-        return codeforcesRating;
-    }
-
-    public Integer getGeeksforgeeksRating() {
-        return geeksforgeeksRating;
-    }
-
-    public Integer getgeeksforgeeksPracticeRating() {
-        return geeksforgeeksPracticeRating;
-    }
-
-    public Integer getLeetcodeRating() {
-        return leetcodeRating;
-    }
-
-    public Integer getCodechefRating() {
-        return codechefRating;
-    }
-
-    public Integer getHackerrankRating() {
-        return hackerrankRating;
-    }
-
-    public Double getPercentile() {
-        return percentile;
-    }
-
-    // setters
-
-    public void setCodeforcesRating(Integer codeforcesRating) {
-        this.codeforcesRating = codeforcesRating;
-    }
-
-    public void setGeeksforgeeksRating(Integer geeksforgeeksRating) {
-        this.geeksforgeeksRating = geeksforgeeksRating;
-    }
-
-    public void setgeeksforgeeksPracticeRating(Integer geeksforgeeksPracticeRating) {
-        this.geeksforgeeksPracticeRating = geeksforgeeksPracticeRating;
-    }
-
-    public void setLeetcodeRating(Integer leetcodeRating) {
-        this.leetcodeRating = leetcodeRating;
-    }
-
-    public void setCodechefRating(Integer codechefRating) {
-        this.codechefRating = codechefRating;
-    }
-
-    public void setHackerrankRating(Integer hackerrankRating) {
-        this.hackerrankRating = hackerrankRating;
-    }
-
-    public void setPercentile(Double percentile) {
-        this.percentile = percentile;
-    }
-}
-
@@ -0,0 +1,157 @@
+package org.cmrit;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Codechef ratings through the Codechef API proxy.
+ */
+public final class CodechefScraper implements PlatformScraper {
+
+    // The pooled client shared by all scrapers
+    private static final ScraperHttpClient HTTP = ScraperHttpClient.shared();
+
+    private static final String CODECHEF_URL = "https://codechef-api.vercel.app/";
+
+    private static final int CODECHEF_MAX_IN_FLIGHT = 16;
+
+    // The API proxy is a small free deployment; every request, sequential or concurrent, keeps to this rate
+    private static final TokenBucket CODECHEF_RATE_LIMITER = new TokenBucket(8, 8);
+
+    @Override
+    public String name() {
+        return "codechef";
+    }
+
+    @Override
+    public String rosterPlatform() {
+        return "codechef";
+    }
+
+    @Override
+    public void scrape(ArrayList<User> users) {
+        if (CMRITLeaderboard2025.hasOption("sequential")) {
+            scrapeCodechef(users);
+        } else {
+            scrapeCodechefConcurrent(users, CMRITLeaderboard2025.intOption("max-in-flight", CODECHEF_MAX_IN_FLIGHT));
+        }
+    }
+
+    /**
+     * Scraper logic for Codechef, one request at a time. A handle that fails is written to codechef_failures.txt
+     * instead of aborting the run, as in {@link #scrapeCodechefConcurrent(ArrayList, int)}.
+     *
+     * @param  resultSet   list of users to scrape
+     */
+    private static void scrapeCodechef(ArrayList <User> resultSet) {
+        // Scraper logic for Codechef
+
+        System.out.println("Codechef scraping in progress...");
+
+        try (ScrapeJournal journal = CMRITLeaderboard2025.openJournal("codechef");
+             RatingsSink sink = CMRITLeaderboard2025.openRatingsSink("codechef")) {
+            ArrayList<User> pending = CMRITLeaderboard2025.resumeFromJournal(journal, sink, resultSet);
+            pending = CMRITLeaderboard2025.reuseFreshRatings(sink, pending, User::getCodechefHandle);
+            int size = pending.size();
+            int i = 1;
+            List<ParallelFetcher.Failure<User>> failures = new ArrayList<>();
+
+            for (User user : pending) {
+                String handle = user.getHandle();
+
+                // remove any spaces from the handle
+                String codechefHandle = user.getCodechefHandle().replace(" ", "");
+
+                System.out.println("(" + i + "/" + size + ") Scraping Codechef for " + handle + " (Codechef Handle: " + codechefHandle + ")");
+                i++;
+
+                try {
+                    CODECHEF_RATE_LIMITER.acquire();
+                    int codechefRating = fetchCodechefRating(codechefHandle);
+
+                    // update the user object with the codechef rating
+                    user.setCodechefRating(codechefRating);
+
+                    System.out.println("Codechef rating for " + codechefHandle + " is: " + codechefRating);
+                    sink.write(handle, codechefHandle, codechefRating);
+                } catch (IOException | JSONException e) {
+                    System.err.println("Error fetching codechef rating for " + codechefHandle + ": " + e.getMessage());
+                    failures.add(new ParallelFetcher.Failure<>(user, e.getClass().getSimpleName() + ": " + e.getMessage()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for rate limiting", e);
+                }
+            }
+            sink.commit();
+            journal.complete();
+
+            CMRITLeaderboard2025.writeFailures("codechef", failures, User::getCodechefHandle);
+            System.out.println("Codechef scraping completed with " + failures.size() + " failures.");
+        } catch (IOException e) {
+            System.err.println("Error writing Codechef ratings: " + e.getMessage());
+        }
+        System.out.println("========================================");
+
+    }
+
+    /**
+     * Scrapes Codechef ratings in parallel with at most {@code maxInFlight} requests outstanding, so the run takes
+     * roughly {@code size / maxInFlight} request round trips, as long as {@link #CODECHEF_RATE_LIMITER} allows.
+     * Every request goes through the shared {@link ScraperHttpClient} and so has connect and request timeouts, and a
+     * handle that fails is written to codechef_failures.txt instead of aborting the run.
+     *
+     * @param  resultSet    list of users to scrape
+     * @param  maxInFlight  maximum number of requests outstanding at once
+     */
+    private static void scrapeCodechefConcurrent(ArrayList<User> resultSet, int maxInFlight) {
+        System.out.println("Codechef scraping in progress (concurrent, " + maxInFlight + " requests in flight)...");
+
+        AtomicInteger counter = new AtomicInteger(1);
+
+        try (ScrapeJournal journal = CMRITLeaderboard2025.openJournal("codechef");
+             RatingsSink sink = CMRITLeaderboard2025.openRatingsSink("codechef")) {
+            ArrayList<User> pending = CMRITLeaderboard2025.resumeFromJournal(journal, sink, resultSet);
+            pending = CMRITLeaderboard2025.reuseFreshRatings(sink, pending, User::getCodechefHandle);
+            int size = pending.size();
+
+            ParallelFetcher<User> fetcher = new ParallelFetcher<>(maxInFlight, CODECHEF_RATE_LIMITER);
+            List<ParallelFetcher.Failure<User>> failures = fetcher.fetchAll(pending, user -> {
+                String handle = user.getHandle();
+                String codechefHandle = user.getCodechefHandle().replace(" ", "");
+                int codechefRating = fetchCodechefRating(codechefHandle);
+                user.setCodechefRating(codechefRating);
+                System.out.println("(" + counter.getAndIncrement() + "/" + size + ") Codechef rating for " + handle + " with Codechef handle " + codechefHandle + " is: " + codechefRating);
+                sink.write(handle, codechefHandle, codechefRating);
+            });
+            sink.commit();
+            journal.complete();
+
+            CMRITLeaderboard2025.writeFailures("codechef", failures, User::getCodechefHandle);
+            System.out.println("Codechef scraping completed with " + failures.size() + " failures.");
+        } catch (IOException e) {
+            System.err.println("Error writing Codechef ratings: " + e.getMessage());
+        }
+        System.out.println("========================================");
+    }
+
+    /**
+     * Fetches the current rating of a single Codechef user.
+     *
+     * @param  codechefHandle  the Codechef username, without spaces
+     * @return                 the current rating
+     * @throws IOException     if the request fails, times out, or the handle is rejected with a non-2xx status
+     * @throws JSONException   if the response carries no rating
+     */
+    private static int fetchCodechefRating(String codechefHandle) throws IOException, JSONException {
+        String jsonContent = HTTP.getString(CODECHEF_URL + URLEncoder.encode(codechefHandle, StandardCharsets.UTF_8));
+        JSONObject jsonObject = new JSONObject(jsonContent);
+        return jsonObject.getInt("currentRating");
+    }
+}
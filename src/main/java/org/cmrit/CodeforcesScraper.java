@@ -0,0 +1,279 @@
+package org.cmrit;
+
+import org.cmrit.CMRITLeaderboard2025.CustomScrapingException;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Codeforces ratings from user.info, or from the rated list with {@code --source=rated_list}.
+ */
+public final class CodeforcesScraper implements PlatformScraper {
+
+    // The pooled client shared by all scrapers
+    private static final ScraperHttpClient HTTP = ScraperHttpClient.shared();
+
+    private static final String CODEFORCES_URL = "https://codeforces.com/api/user.info?handles=";
+    private static final String CODEFORCES_RATED_LIST_URL = "https://codeforces.com/api/user.ratedList?activeOnly=false&includeRetired=true";
+
+    @Override
+    public String name() {
+        return "codeforces";
+    }
+
+    @Override
+    public String rosterPlatform() {
+        return "codeforces";
+    }
+
+    @Override
+    public void scrape(ArrayList<User> users) throws CustomScrapingException {
+        if ("rated_list".equals(CMRITLeaderboard2025.options.get("source"))) {
+            scrapeCodeforcesRatedList(users);
+        } else {
+            scrapeCodeforces(users);
+        }
+    }
+
+    private static final int MAX_HANDLES_PER_REQUEST = 380;
+    // Longer request lines risk being rejected before they reach the API, so chunks are also capped by URL length
+    private static final int MAX_CODEFORCES_URL_LENGTH = 6000;
+    private static final int CODEFORCES_MAX_IN_FLIGHT = 4;
+    private static final int CODEFORCES_MAX_RETRIES = 10;
+
+    // The Codeforces API allows one call every two seconds; every attempt, retry and bisected half draws from it
+    private static final TokenBucket CODEFORCES_RATE_LIMITER = new TokenBucket(1, 0.5);
+
+    /**
+     * Scrapes Codeforces ratings for a list of users and writes the results to a text file.
+     *
+     * Users are split into chunks that fit in one user.info URL, and the chunks are fetched concurrently under
+     * {@link #CODEFORCES_RATE_LIMITER}. Returned entries are matched back to users through a hash index on the
+     * normalised handle. A chunk that Codeforces rejects with 400, usually because one of its handles does not
+     * exist, is bisected until the bad handles are isolated; those are written to codeforces_failures.txt.
+     *
+     * @param  resultSet  list of User objects to scrape ratings for
+     * @throws CustomScrapingException  if a chunk still cannot be fetched after 10 retries
+     */
+    private static void scrapeCodeforces(ArrayList<User> resultSet) throws CustomScrapingException {
+        // Print a message indicating the start of Codeforces scraping
+        System.out.println("Codeforces scraping in progress...");
+
+        try (ScrapeJournal journal = CMRITLeaderboard2025.openJournal("codeforces");
+             RatingsSink sink = CMRITLeaderboard2025.openRatingsSink("codeforces")) {
+            ArrayList<User> pending = CMRITLeaderboard2025.resumeFromJournal(journal, sink, resultSet);
+            pending = CMRITLeaderboard2025.reuseFreshRatings(sink, pending, User::getCodeforcesHandle);
+
+            // Index users by their case-insensitive handle so each returned entry is matched in constant time
+            Map<String, User> handleIndex = new HashMap<>();
+            for (User user : pending) {
+                handleIndex.putIfAbsent(codeforcesHandleKey(user.getCodeforcesHandle()), user);
+            }
+
+            // Split the list of users into chunks
+            List<List<User>> userChunks = splitUsersIntoChunks(pending);
+
+            AtomicInteger counter = new AtomicInteger(1); // Counter for tracking the progress of scraping
+            int totalUsers = pending.size(); // Total number of users to scrape
+            List<ParallelFetcher.Failure<User>> badHandles = Collections.synchronizedList(new ArrayList<>());
+
+            ParallelFetcher<List<User>> fetcher = new ParallelFetcher<>(CMRITLeaderboard2025.intOption("max-in-flight", CODEFORCES_MAX_IN_FLIGHT), null);
+            List<ParallelFetcher.Failure<List<User>>> failedChunks = fetcher.fetchAll(userChunks, users -> {
+                for (LeaderboardJson.Row row : fetchCodeforcesChunk(users, badHandles)) {
+                    String handle = row.handle();
+                    int rating = (int) row.score();
+                    System.out.println("(" + counter.getAndIncrement() + "/" + totalUsers + ") " + "Codeforces rating for " + handle + " is: " + rating);
+
+                    User user = handleIndex.get(codeforcesHandleKey(handle));
+                    if (user != null) {
+                        // Update the user object with the Codeforces rating
+                        user.setCodeforcesRating(rating);
+                        sink.write(user.getHandle(), handle, rating);
+                    }
+                }
+            });
+            if (!failedChunks.isEmpty()) {
+                // Leave the previous ratings file in place; the journal keeps this run's progress for --resume
+                throw new CustomScrapingException("Failed to fetch " + failedChunks.size() + " Codeforces chunks after "
+                        + CODEFORCES_MAX_RETRIES + " retries: " + failedChunks.get(0).reason());
+            }
+            sink.commit();
+            journal.complete();
+
+            CMRITLeaderboard2025.writeFailures("codeforces", badHandles, User::getCodeforcesHandle);
+        } catch (IOException e) {
+            System.err.println("Error writing Codeforces ratings: " + e.getMessage());
+        }
+        // Print a message indicating the completion of Codeforces scraping
+        System.out.println("Codeforces scraping completed.");
+        System.out.println("========================================");
+    }
+
+    /**
+     * Scrapes Codeforces ratings from the full user.ratedList instead of user.info. The list holds every rated
+     * Codeforces user, so it is a single large download however big the roster is. It is streamed through
+     * {@link LeaderboardJson} and only entries whose handle is in the roster are kept, so memory use does not grow
+     * with the size of the response. Roster users that are not in the list have never taken part in a rated contest
+     * and get 0, the same as user.info reports for them.
+     *
+     * @param  resultSet  list of User objects to scrape ratings for
+     * @throws CustomScrapingException  if the rated list cannot be downloaded or parsed
+     */
+    private static void scrapeCodeforcesRatedList(ArrayList<User> resultSet) throws CustomScrapingException {
+        System.out.println("Codeforces scraping in progress (rated list)...");
+
+        try (ScrapeJournal journal = CMRITLeaderboard2025.openJournal("codeforces");
+             RatingsSink sink = CMRITLeaderboard2025.openRatingsSink("codeforces")) {
+            ArrayList<User> pending = CMRITLeaderboard2025.resumeFromJournal(journal, sink, resultSet);
+            pending = CMRITLeaderboard2025.reuseFreshRatings(sink, pending, User::getCodeforcesHandle);
+
+            // Roster users by case-insensitive handle; matched users are removed, leaving the unrated ones
+            Map<String, User> handleIndex = new LinkedHashMap<>();
+            for (User user : pending) {
+                handleIndex.putIfAbsent(codeforcesHandleKey(user.getCodeforcesHandle()), user);
+            }
+
+            int counter = 1;
+            int totalUsers = handleIndex.size();
+            int scanned = 0;
+            if (!handleIndex.isEmpty()) {
+                CODEFORCES_RATE_LIMITER.acquire();
+                LeaderboardJson.Page page = CMRITLeaderboard2025.fetchLeaderboardPage(CODEFORCES_RATED_LIST_URL, "result", "handle", "rating",
+                        handle -> handleIndex.containsKey(codeforcesHandleKey(handle)));
+                if (!"OK".equals(page.fields().get("status"))) {
+                    throw new IOException("Codeforces rated list request failed: " + page.fields().get("comment"));
+                }
+                scanned = page.rowCount();
+
+                for (LeaderboardJson.Row row : page.rows()) {
+                    User user = handleIndex.remove(codeforcesHandleKey(row.handle()));
+                    if (user != null) {
+                        int rating = (int) row.score();
+                        user.setCodeforcesRating(rating);
+                        System.out.println("(" + counter++ + "/" + totalUsers + ") " + "Codeforces rating for " + row.handle() + " is: " + rating);
+                        sink.write(user.getHandle(), row.handle(), rating);
+                    }
+                }
+            }
+
+            // Whoever is left has no rated contests
+            for (User user : handleIndex.values()) {
+                user.setCodeforcesRating(0);
+                sink.write(user.getHandle(), user.getCodeforcesHandle(), 0);
+            }
+            sink.commit();
+            journal.complete();
+            System.out.println("Scanned " + scanned + " rated users, " + (totalUsers - handleIndex.size()) + " on the roster.");
+        } catch (IOException e) {
+            throw new CustomScrapingException("Error scraping Codeforces rated list: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomScrapingException("Interrupted while waiting for rate limiting");
+        }
+        System.out.println("Codeforces scraping completed.");
+        System.out.println("========================================");
+    }
+
+    /**
+     * Fetches one chunk of users from user.info, retrying transient errors. If Codeforces rejects the chunk with
+     * 400, the chunk is split in half and each half fetched on its own, so a single bad handle only costs
+     * log2(chunk size) extra requests instead of failing the whole chunk.
+     *
+     * @param  users       the users to fetch
+     * @param  badHandles  receives the users Codeforces rejects on their own
+     * @return             the handle and rating of every accepted user
+     * @throws IOException           if a request still fails after {@link #CODEFORCES_MAX_RETRIES} attempts
+     * @throws InterruptedException  if interrupted while waiting for the rate limiter
+     */
+    private static List<LeaderboardJson.Row> fetchCodeforcesChunk(List<User> users, List<ParallelFetcher.Failure<User>> badHandles) throws IOException, InterruptedException {
+        // Create a list of all the Codeforces handles separated by ";"
+        String url = CODEFORCES_URL + users.stream()
+                .map(user -> encodeCodeforcesHandle(user.getCodeforcesHandle()))
+                .collect(Collectors.joining(";"));
+
+        for (int attempt = 1; ; attempt++) {
+            CODEFORCES_RATE_LIMITER.acquire();
+            try {
+                // user.info only answers with the handles asked for, so every row is kept
+                LeaderboardJson.Page page = CMRITLeaderboard2025.fetchLeaderboardPage(url, "result", "handle", "rating", handle -> true);
+                if (!"OK".equals(page.fields().get("status"))) {
+                    throw new IOException("Codeforces request failed: " + page.fields().get("comment"));
+                }
+                return page.rows();
+            } catch (IOException e) {
+                if (e instanceof ScraperHttpClient.HttpStatusException status && status.getStatusCode() == 400) {
+                    if (users.size() == 1) {
+                        badHandles.add(new ParallelFetcher.Failure<>(users.get(0), e.getMessage()));
+                        return List.of();
+                    }
+                    int middle = users.size() / 2;
+                    List<LeaderboardJson.Row> entries = new ArrayList<>(fetchCodeforcesChunk(users.subList(0, middle), badHandles));
+                    entries.addAll(fetchCodeforcesChunk(users.subList(middle, users.size()), badHandles));
+                    return entries;
+                }
+                if (attempt >= CODEFORCES_MAX_RETRIES) {
+                    throw new IOException("Error fetching Codeforces rating: " + e.getMessage(), e);
+                }
+                System.err.println("Error fetching Codeforces rating. Retrying attempt " + attempt + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return  the handle as sent to Codeforces: without whitespace and URL-encoded
+     */
+    private static String encodeCodeforcesHandle(String handle) {
+        return URLEncoder.encode(handle.replaceAll("\\s", ""), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return  the key a handle is indexed under; Codeforces handles are case-insensitive
+     */
+    private static String codeforcesHandleKey(String handle) {
+        return handle.replaceAll("\\s", "").toLowerCase(Locale.ROOT);
+    }
+
+
+
+    /**
+     * Splits the list of users into chunks for user.info requests. A chunk holds at most
+     * {@link #MAX_HANDLES_PER_REQUEST} handles and its URL stays within {@link #MAX_CODEFORCES_URL_LENGTH}.
+     *
+     * @param  resultSet  the list of users to be split
+     * @return            a list of chunks, each containing a sublist of users
+     */
+    private static List<List<User>> splitUsersIntoChunks(ArrayList<User> resultSet) {
+        // Initialize an empty list to store the chunks
+        List<List<User>> chunks = new ArrayList<>();
+
+        List<User> chunk = new ArrayList<>();
+        int urlLength = CODEFORCES_URL.length();
+        for (User user : resultSet) {
+            // The encoded handle plus its ";" separator
+            int handleLength = encodeCodeforcesHandle(user.getCodeforcesHandle()).length() + 1;
+            if (!chunk.isEmpty() && (chunk.size() == MAX_HANDLES_PER_REQUEST || urlLength + handleLength > MAX_CODEFORCES_URL_LENGTH)) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                urlLength = CODEFORCES_URL.length();
+            }
+            chunk.add(user);
+            urlLength += handleLength;
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+
+        // Return the list of chunks
+        return chunks;
+    }
+}
@@ -0,0 +1,380 @@
+package org.cmrit;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * GeeksforGeeks practice scores from the institute page and, for students it misses, their profiles.
+ */
+public final class GfgPracticeScraper implements PlatformScraper {
+
+    // The pooled client shared by all scrapers
+    private static final ScraperHttpClient HTTP = ScraperHttpClient.shared();
+
+    private static final String GFG_URL = "https://auth.geeksforgeeks.org/user/";
+    private static final String GFG_PRACTICE_URL = "https://practiceapi.geeksforgeeks.org/api/v1/institute/341/students/stats?page=";
+
+    // Profile pages fetched at once, and at most this many per second, when the institute page misses a student
+    private static final int GFG_PROFILE_MAX_IN_FLIGHT = 8;
+    private static final TokenBucket GFG_PROFILE_RATE_LIMITER = new TokenBucket(4, 4);
+
+    // Students per institute stats page, and how many of those pages are fetched at once
+    private static final int GFG_PRACTICE_PAGE_SIZE = 1000;
+    private static final int GFG_PRACTICE_MAX_IN_FLIGHT = 4;
+
+    // The institute stats API used to be polled once a second; keep to that rate with pages in flight
+    private static final TokenBucket GFG_PRACTICE_RATE_LIMITER = new TokenBucket(1, 1);
+
+    @Override
+    public String name() {
+        return "gfg_practice";
+    }
+
+    @Override
+    public String rosterPlatform() {
+        return "geeksforgeeks";
+    }
+
+    @Override
+    public void scrape(ArrayList<User> users) {
+        scrapeGfgPractice(users, CMRITLeaderboard2025.handleMap(users, User::getGeeksforgeeksHandle));
+    }
+
+    /**
+     * Scrapes GeeksforGeeks practice ratings for users and updates their ratings in the provided data structures
+     *
+     * @param  trueGfg           ArrayList of User objects to update practice ratings for
+     * @param  gfgHandleToUserMap   Map of String to User for quick access to user data
+     */
+    private static void scrapeGfgPractice(ArrayList<User> trueGfg, Map<String, User> gfgHandleToUserMap){
+        // Display progress message
+        System.out.println("GeeksforGeeks scraping in progress...");
+
+        System.out.println("GFG practice scraping in progress...");
+
+        AtomicInteger counter = new AtomicInteger(1);
+
+        try (RatingsSink sink = CMRITLeaderboard2025.openRatingsSink("gfg_practice")) {
+            if (CMRITLeaderboard2025.reuseIfAllFresh(sink, trueGfg, User::getGeeksforgeeksHandle)) {
+                sink.commit();
+                return;
+            }
+
+            // Overall Practice score scraping: the first page tells how many students there are in total
+            int pageSize = CMRITLeaderboard2025.intOption("page-size", GFG_PRACTICE_PAGE_SIZE);
+            GFG_PRACTICE_RATE_LIMITER.acquire();
+            Predicate<String> onRoster = handle -> gfgHandleToUserMap.containsKey(handle.toLowerCase());
+            LeaderboardJson.Page firstPage = fetchGfgPracticePage(1, pageSize, onRoster);
+            if (firstPage != null) {
+                System.out.println("Page: 1");
+                applyGfgPracticePage(firstPage, gfgHandleToUserMap, sink, counter, trueGfg.size());
+
+                // Then fetch every remaining page at once
+                int totalPages = gfgPracticePageCount(firstPage, pageSize);
+                if (totalPages < 0) {
+                    // The first page did not say how many students there are: follow the pages one by one instead
+                    LeaderboardJson.Page gfguserData = firstPage;
+                    for (int page = 2; gfguserData.fields().get("next") != null && gfguserData.rowCount() > 0; page++) {
+                        GFG_PRACTICE_RATE_LIMITER.acquire();
+                        try {
+                            gfguserData = fetchGfgPracticePage(page, pageSize, onRoster);
+                        } catch (IOException e) {
+                            System.err.println("Error fetching GFG Practice page " + page + ": " + e.getMessage());
+                            break;
+                        }
+                        if (gfguserData == null) {
+                            break;
+                        }
+                        System.out.println("Page: " + page);
+                        applyGfgPracticePage(gfguserData, gfgHandleToUserMap, sink, counter, trueGfg.size());
+                    }
+                } else {
+                    List<Integer> remainingPages = new ArrayList<>();
+                    for (int page = 2; page <= totalPages; page++) {
+                        remainingPages.add(page);
+                    }
+                    ParallelFetcher<Integer> fetcher = new ParallelFetcher<>(CMRITLeaderboard2025.intOption("max-in-flight", GFG_PRACTICE_MAX_IN_FLIGHT), GFG_PRACTICE_RATE_LIMITER);
+                    List<ParallelFetcher.Failure<Integer>> failures = fetcher.fetchAll(remainingPages, page -> {
+                        LeaderboardJson.Page gfguserData = fetchGfgPracticePage(page, pageSize, onRoster);
+                        System.out.println("Page: " + page + "/" + totalPages);
+                        if (gfguserData != null) {
+                            applyGfgPracticePage(gfguserData, gfgHandleToUserMap, sink, counter, trueGfg.size());
+                        }
+                    });
+                    for (ParallelFetcher.Failure<Integer> failure : failures) {
+                        System.err.println("Error fetching GFG Practice page " + failure.item() + ": " + failure.reason());
+                    }
+                }
+            }
+            System.out.println("GFG practice scraping from institute page completed.");
+
+            // Read the score of everyone the institute page did not cover from their profile
+            List<ParallelFetcher.Failure<User>> failures = scrapeGfgProfiles(trueGfg, sink, counter);
+
+            if (!failures.isEmpty() && CMRITLeaderboard2025.hasOption("selenium-fallback")) {
+                // Keep the results so far even if the browser cannot be started
+                try {
+                    scrapeGfgProfilesWithSelenium(trueGfg, sink, counter.get());
+                } catch (RuntimeException e) {
+                    System.err.println("Error fetching GFG profiles with Selenium: " + e.getMessage());
+                }
+                failures.removeIf(failure -> failure.item().getgeeksforgeeksPracticeRating() != null);
+            }
+            CMRITLeaderboard2025.writeFailures("gfg_practice", failures, User::getGeeksforgeeksHandle);
+            sink.commit();
+        } catch (IOException e) {
+            System.err.println("Error writing GFG practice ratings: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupted while scraping GFG practice ratings");
+        }
+    }
+
+    /**
+     * Fetches one page of the institute's practice stats.
+     *
+     * @param  page      the page number, starting at 1
+     * @param  pageSize  number of students per page
+     * @param  keep      decides from the GFG handle whether a student's row is kept
+     * @return           the decoded page, or null if GFG answers 404 or 400 because the page does not exist
+     * @throws IOException  if the request fails
+     */
+    private static LeaderboardJson.Page fetchGfgPracticePage(int page, int pageSize, Predicate<String> keep) throws IOException {
+        try (ScraperHttpClient.Response response = HTTP.get(GFG_PRACTICE_URL + page + "&page_size=" + pageSize)) {
+            if (response.statusCode() == HttpURLConnection.HTTP_NOT_FOUND || response.statusCode() == HttpURLConnection.HTTP_BAD_REQUEST) {
+                return null;
+            }
+            response.requireSuccess();
+            return LeaderboardJson.read(response.body(), "results", "handle", "coding_score", keep);
+        }
+    }
+
+    /**
+     * Works out how many institute stats pages there are from the first one.
+     *
+     * @param  firstPage          the first page
+     * @param  requestedPageSize  the page size asked for, used if the response states neither a page size nor rows
+     * @return                    number of pages needed to cover every student, or -1 if the response does not
+     *                            give a usable student count
+     */
+    private static int gfgPracticePageCount(LeaderboardJson.Page firstPage, int requestedPageSize) {
+        Map<String, String> fields = firstPage.fields();
+        if (fields.get("next") == null) {
+            return 1;
+        }
+        long count = wholeNumber(fields.get("count"));
+        if (count <= 0) {
+            return -1;
+        }
+        // Another page follows, so the first one is full
+        long size = wholeNumber(fields.get("page_size"));
+        if (size <= 0) {
+            size = firstPage.rowCount() > 0 ? firstPage.rowCount() : requestedPageSize;
+        }
+        return (int) Math.min((count + size - 1) / size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reads a JSON number kept as a string, e.g. "1200" or "1200.0".
+     *
+     * @param  value  the field's value, or null if it was missing or JSON null
+     * @return        the value, or -1 if it is not a whole, non-negative number
+     */
+    private static long wholeNumber(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            double number = Double.parseDouble(value);
+            return number >= 0 && number <= Long.MAX_VALUE && number == Math.rint(number) ? (long) number : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Updates the practice rating of every roster user on a page. Pages may be applied from several threads at once.
+     */
+    private static void applyGfgPracticePage(LeaderboardJson.Page gfguserData, Map<String, User> gfgHandleToUserMap,
+                                             RatingsSink sink, AtomicInteger counter, int total) throws IOException {
+        for (LeaderboardJson.Row gfgUser : gfguserData.rows()) {
+            String gfgHandle = gfgUser.handle();
+            int codingScore = (int) gfgUser.score();
+            User user = gfgHandleToUserMap.get(gfgHandle.toLowerCase());
+            user.setgeeksforgeeksPracticeRating(codingScore);
+            System.out.println("(" + counter.getAndIncrement() + "/" + total + ") " + "GFG practice contest rating for " + user.getHandle() + " with GFG handle " + gfgHandle + " is: " + codingScore);
+            sink.write(user.getHandle(), gfgHandle, codingScore);
+        }
+    }
+
+    /**
+     * Fetches the profile page of every GFG user the institute page did not cover and reads their overall coding
+     * score from it, over plain HTTP with bounded concurrency. Cookies set by GeeksforGeeks are kept by the shared
+     * client; a logged-in session can be supplied through the GFG_SESSION_COOKIE environment variable.
+     *
+     * @param  trueGfg  users with a GFG handle; those with no practice rating yet are fetched
+     * @param  sink     sink the fetched ratings are written to
+     * @param  counter  progress counter
+     * @return          the users whose score could not be fetched
+     */
+    private static List<ParallelFetcher.Failure<User>> scrapeGfgProfiles(ArrayList<User> trueGfg, RatingsSink sink, AtomicInteger counter) {
+        List<User> missing = trueGfg.stream()
+                .filter(user -> user.getgeeksforgeeksPracticeRating() == null)
+                .collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return new ArrayList<>();
+        }
+        System.out.println("Fetching " + missing.size() + " GFG profiles not on the institute page...");
+
+        String sessionCookie = System.getenv("GFG_SESSION_COOKIE");
+        if (sessionCookie != null && !sessionCookie.isBlank()) {
+            HTTP.addCookies("geeksforgeeks.org", sessionCookie);
+        }
+
+        ParallelFetcher<User> fetcher = new ParallelFetcher<>(GFG_PROFILE_MAX_IN_FLIGHT, GFG_PROFILE_RATE_LIMITER);
+        List<ParallelFetcher.Failure<User>> failures = fetcher.fetchAll(missing, user -> {
+            String gfgHandle = user.getGeeksforgeeksHandle();
+            String html = HTTP.getString(GFG_URL + URLEncoder.encode(gfgHandle, StandardCharsets.UTF_8));
+            Integer gfgRating = parseGfgCodingScore(html);
+            if (gfgRating == null) {
+                throw new IOException("Overall Coding Score not found on profile");
+            }
+            user.setgeeksforgeeksPracticeRating(gfgRating);
+            System.out.println("(" + counter.getAndIncrement() + "/" + trueGfg.size() + ") " + "GFG practice contest rating for " + user.getHandle() + " with GFG handle " + gfgHandle + " is: " + gfgRating);
+            sink.write(user.getHandle(), gfgHandle, gfgRating);
+        });
+        return new ArrayList<>(failures);
+    }
+
+    /**
+     * Reads the overall coding score from a GFG profile page. The score is taken from the page's embedded Next.js
+     * data when it is there, otherwise from the element following the "Overall Coding Score" (or "Coding Score")
+     * label.
+     *
+     * @param  html  the profile page
+     * @return       the score, or null if the page has none
+     */
+    static Integer parseGfgCodingScore(String html) {
+        Document document = Jsoup.parse(html);
+
+        Element nextData = document.getElementById("__NEXT_DATA__");
+        if (nextData != null) {
+            try {
+                JsonObject userInfo = JsonParser.parseString(nextData.data()).getAsJsonObject()
+                        .getAsJsonObject("props").getAsJsonObject("pageProps").getAsJsonObject("userInfo");
+                if (userInfo != null && userInfo.has("score") && !userInfo.get("score").isJsonNull()) {
+                    return userInfo.get("score").getAsInt();
+                }
+            } catch (RuntimeException e) {
+                // Layout changed; fall back to the visible label
+            }
+        }
+
+        for (String label : new String[]{"Overall Coding Score", "Coding Score"}) {
+            for (Element element : document.getElementsContainingOwnText(label)) {
+                // The value is the next element with a number in it, next to the label or next to its parent
+                for (Element scope = element; scope != null && scope != document.body(); scope = scope.parent()) {
+                    for (Element sibling = scope.nextElementSibling(); sibling != null; sibling = sibling.nextElementSibling()) {
+                        String text = sibling.text().trim();
+                        if (text.matches("\\d+")) {
+                            return Integer.parseInt(text);
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Logs into GeeksforGeeks with a headless Firefox and reads the practice score from the profile page of every
+     * user the institute page did not cover.
+     *
+     * @param  trueGfg  users with a GFG handle; those with no practice rating yet are fetched
+     * @param  sink     sink the fetched ratings are written to
+     * @param  counter  progress counter to continue from
+     */
+    private static void scrapeGfgProfilesWithSelenium(ArrayList<User> trueGfg, RatingsSink sink, int counter) {
+        // Set up Firefox Options for headless scraping
+        FirefoxOptions options = new FirefoxOptions();
+        options.addArguments("-headless");
+
+        // Initialize Firefox driver and navigate to the website
+        WebDriver driver = new FirefoxDriver(options);
+        driver.get("https://auth.geeksforgeeks.org/");
+
+        try {
+            // Find username and password fields and enter credentials
+            WebElement username = driver.findElement(By.id("luser"));
+            WebElement password = driver.findElement(By.id("password"));
+            String gfgUsername = System.getenv("GFG_USERNAME");
+            String gfgPassword = System.getenv("GFG_PASSWORD");
+            username.sendKeys(gfgUsername);
+            password.sendKeys(gfgPassword);
+
+            // Click on the sign-in button
+            WebElement signInButton = driver.findElement(By.className("signin-button"));
+            signInButton.click();
+
+            // Add a delay for demonstration purposes
+            Thread.sleep(5000);
+
+            // Iterate over users to fetch practice ratings if not already available
+            for (User user : trueGfg) {
+                if (user.getgeeksforgeeksPracticeRating() == null) {
+                    // Open user profile and get the rating
+                    String gfgHandle = user.getGeeksforgeeksHandle();
+                    System.out.println("Practice rating not found for " + user.getHandle() + " with GFG handle " + gfgHandle + ". Fetching from profile...");
+                    driver.get(GFG_URL + gfgHandle);
+                    try {
+                        Thread.sleep(2000);
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    // Fetch and parse practice rating
+                    try {
+                        WebElement scoreCardValue = driver.findElement(By.xpath("//span[contains(text(), 'Overall Coding Score')]/following-sibling::br/following-sibling::span"));
+                        int gfgRating = 0;
+                        try {
+                            gfgRating = Integer.parseInt(scoreCardValue.getText());
+                        } catch (NumberFormatException e) {
+                            System.err.println("Error parsing GFG practice contest rating for " + gfgHandle + ": " + e.getMessage());
+                        }
+                        user.setgeeksforgeeksPracticeRating(gfgRating);
+
+                        System.out.println("(" + counter + "/" + trueGfg.size() + ") " + "GFG practice contest rating for " + user.getHandle() + " with GFG handle " + user.getGeeksforgeeksHandle() + " is: " + gfgRating);
+                        sink.write(user.getHandle(), gfgHandle, gfgRating);
+                        counter++;
+                    } catch (NoSuchElementException | IOException e) {
+                        System.err.println("Error fetching GFG practice contest rating for " + gfgHandle + ": " + e.getMessage());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.out.println("Error: " + e.getMessage());
+        } finally {
+            // Close the browser
+            driver.quit();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.cmrit;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * GeeksforGeeks weekly contest scores.
+ */
+public final class GfgScraper implements PlatformScraper {
+
+    // The pooled client shared by all scrapers
+    private static final ScraperHttpClient HTTP = ScraperHttpClient.shared();
+
+    private static final String GFG_WEEKLY_CONTEST_URL = "https://practiceapi.geeksforgeeks.org/api/latest/events/recurring/gfg-weekly-coding-contest/leaderboard/?leaderboard_type=0&page=";
+
+    // Shared by the window of leaderboard pages in flight
+    private static final TokenBucket GFG_WEEKLY_RATE_LIMITER = new TokenBucket(4, 4);
+
+    @Override
+    public String name() {
+        return "gfg";
+    }
+
+    @Override
+    public String rosterPlatform() {
+        return "geeksforgeeks";
+    }
+
+    @Override
+    public void scrape(ArrayList<User> users) {
+        scrapeGfg(users, CMRITLeaderboard2025.handleMap(users, User::getGeeksforgeeksHandle));
+    }
+
+    /**
+     * Scraper logic for GeeksforGeeks
+     *
+     * @param  trueGfg          list of true GFG users
+     * @param  gfgHandleToUserMap  map of GFG handle to User object
+     */
+    private static void scrapeGfg(ArrayList<User> trueGfg, Map<String, User> gfgHandleToUserMap){
+        // Scraper logic for GeeksforGeeks
+
+        System.out.println("GeeksforGeeks scraping in progress...");
+
+        // Essential variables
+        AtomicInteger counter = new AtomicInteger(1);
+
+        try (RatingsSink sink = CMRITLeaderboard2025.openRatingsSink("gfg")) {
+            if (CMRITLeaderboard2025.reuseIfAllFresh(sink, trueGfg, User::getGeeksforgeeksHandle)) {
+                sink.commit();
+                return;
+            }
+
+            // Overall weekly leaderboard scraping, a window of pages at a time
+            PagedFetcher<LeaderboardJson.Page> pager = new PagedFetcher<>("GFG weekly contest", CMRITLeaderboard2025.intOption("page-window", CMRITLeaderboard2025.PAGE_WINDOW));
+            pager.fetch(1, 10000, page -> {
+                GFG_WEEKLY_RATE_LIMITER.acquire();
+                // Fetch the page and keep only the rows of our students
+                return CMRITLeaderboard2025.fetchLeaderboardPage(GFG_WEEKLY_CONTEST_URL + page, "results", "user_handle", "user_score",
+                        handle -> gfgHandleToUserMap.containsKey(handle.toLowerCase()));
+            }, (page, gfguserData) -> {
+                System.out.println("Page: " + page);
+
+                // A page past the end of the leaderboard has no results
+                if (gfguserData.rowCount() == 0) {
+                    return false;
+                }
+
+                for (LeaderboardJson.Row gfgUser : gfguserData.rows()) {
+                    String gfgHandle = gfgUser.handle();
+                    // Scores are sorted, so nothing from the first zero on counts
+                    if (gfgUser.score() == 0) {
+                        break;
+                    }
+                    User user = gfgHandleToUserMap.get(gfgHandle.toLowerCase());
+                    user.setGeeksforgeeksRating((int)gfgUser.score());
+                    System.out.println("(" + counter + "/" + trueGfg.size() + ") " + "GFG weekly contest rating for " + user.getHandle() + " with GFG handle " + gfgHandle + " is: " + (int)gfgUser.score());
+                    sink.write(user.getHandle(), gfgHandle, (int)gfgUser.score());
+                    counter.incrementAndGet();
+                }
+                // The first zero score, ours or anyone's, ends the walk
+                return gfguserData.minScore() != 0;
+            });
+
+            // set all unset ratings to 0
+            for (User user : trueGfg) {
+                if (user.getGeeksforgeeksRating() == null) {
+                    user.setGeeksforgeeksRating(0);
+                    System.out.println("(" + counter + "/" + trueGfg.size() + ") " + "GFG overall rating for " + user.getHandle() + " with GFG handle " + user.getGeeksforgeeksHandle() + " is: " + 0);
+                    sink.write(user.getHandle(), user.getGeeksforgeeksHandle(), 0);
+                    counter.incrementAndGet();
+                }
+            }
+            sink.commit();
+        } catch (IOException e) {
+            System.err.println("Error writing GFG contest ratings: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupted while scraping GFG contest ratings");
+        }
+
+        System.out.println("GFG overall scraping completed.");
+        System.out.println("========================================");
+
+    }
+}
@@ -0,0 +1,110 @@
+package org.cmrit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hackerrank scores summed over the contests in hackerrank_urls.txt.
+ */
+public final class HackerrankScraper implements PlatformScraper {
+
+    // The pooled client shared by all scrapers
+    private static final ScraperHttpClient HTTP = ScraperHttpClient.shared();
+
+    // Hackerrank contests walked at once, each with its own window of pages
+    private static final int HACKERRANK_MAX_CONTESTS_IN_FLIGHT = 4;
+    // Shared by every contest's page window, so 16 pages in flight still make at most 4 requests a second
+    private static final TokenBucket HACKERRANK_RATE_LIMITER = new TokenBucket(4, 4);
+
+    @Override
+    public String name() {
+        return "hackerrank";
+    }
+
+    @Override
+    public String rosterPlatform() {
+        return "hackerrank";
+    }
+
+    @Override
+    public void scrape(ArrayList<User> users) {
+        scrapeHackerrank(users, CMRITLeaderboard2025.handleMap(users, User::getHackerrankHandle));
+    }
+
+    /**
+     * Scrapes and updates the Hackerrank ratings for the given users
+     *
+     * Contests are walked concurrently, each with a window of leaderboard pages in flight, and every page request
+     * draws from {@link #HACKERRANK_RATE_LIMITER}. Every score is added to its user's total in a
+     * {@link ConcurrentHashMap}. Integer addition does not depend on order, so the totals are the same whichever
+     * contest or page finishes first.
+     *
+     * @param trueHackerrank          List of User objects with Hackerrank accounts
+     * @param hackerrankHandleToUserMap   Map of Hackerrank handles to User objects
+     */
+    private static void scrapeHackerrank(ArrayList<User> trueHackerrank, Map<String, User> hackerrankHandleToUserMap) {
+        // Scraper logic for Hackerrank
+        System.out.println("Hackerrank scraping in progress...");
+
+        try (RatingsSink sink = CMRITLeaderboard2025.openRatingsSink("hackerrank")) {
+            if (CMRITLeaderboard2025.reuseIfAllFresh(sink, trueHackerrank, User::getHackerrankHandle)) {
+                sink.commit();
+                return;
+            }
+
+            // Contests up to the "null" end marker
+            List<String> trackerNames = new ArrayList<>();
+            for (String trackerName : CMRITLeaderboard2025.SEARCH_TOKENS) {
+                if (trackerName.equals("null")) break;
+                trackerNames.add(trackerName);
+            }
+
+            Map<User, Integer> totals = new ConcurrentHashMap<>();
+            ParallelFetcher<String> fetcher = new ParallelFetcher<>(CMRITLeaderboard2025.intOption("max-in-flight", HACKERRANK_MAX_CONTESTS_IN_FLIGHT), null);
+            List<ParallelFetcher.Failure<String>> failures = fetcher.fetchAll(trackerNames, trackerName -> {
+                System.out.println(trackerName);
+                // Iterate over leaderboard pages of 100, a window of pages at a time
+                PagedFetcher<LeaderboardJson.Page> pager = new PagedFetcher<>("Hackerrank " + trackerName, CMRITLeaderboard2025.intOption("page-window", CMRITLeaderboard2025.PAGE_WINDOW));
+                pager.fetch(0, 99, page -> {
+                    HACKERRANK_RATE_LIMITER.acquire();
+                    // Construct the leaderboard URL and keep only the rows of our students
+                    String url = "https://www.hackerrank.com/rest/contests/" + trackerName + "/leaderboard?offset=" + page * 100 + "&limit=100";
+                    return CMRITLeaderboard2025.fetchLeaderboardPage(url, "models", "hacker", "score",
+                            hacker -> hackerrankHandleToUserMap.containsKey(hacker.toLowerCase()));
+                }, (page, leaderboard) -> {
+                    // An unknown contest is answered without a models array
+                    if (!leaderboard.rowsPresent()) {
+                        System.err.println("Error fetching Hackerrank rating for " + trackerName + ": INVALID URL : " + trackerName);
+                        return false;
+                    }
+                    if (leaderboard.rowCount() == 0) return false;
+                    // Iterate over leaderboard models
+                    for (LeaderboardJson.Row model : leaderboard.rows()) {
+                        String userHandle = model.handle().toLowerCase();
+
+                        // Add to the user's total across contests
+                        User user = hackerrankHandleToUserMap.get(userHandle);
+                        totals.merge(user, (int) model.score(), Integer::sum);
+                        System.out.println("Hackerrank rating for " + userHandle + " is: " + (int) model.score());
+                    }
+                    return true;
+                });
+            });
+            for (ParallelFetcher.Failure<String> failure : failures) {
+                System.err.println("Error fetching Hackerrank rating for " + failure.item() + ": " + failure.reason());
+            }
+
+            // Write Hackerrank ratings to file; users start at 0, so those in no contest are written with 0
+            for (User user : trueHackerrank) {
+                int total = user.getHackerrankRating() + totals.getOrDefault(user, 0);
+                user.setHackerrankRating(total);
+                sink.write(user.getHandle(), user.getHackerrankHandle(), total);
+            }
+            sink.commit();
+        } catch (Exception e) {
+            System.err.println("Error fetching Hackerrank rating: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.cmrit;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.DecimalFormat;
+import java.util.List;
+
+/**
+ * Writes the ranked leaderboard to an Excel sheet.
+ *
+ * Rows are streamed through an {@link SXSSFWorkbook} that keeps only the last {@link #ROW_WINDOW} rows in memory
+ * and flushes older ones to a compressed temporary file, so memory stays flat however many students there are.
+ * The two cell styles and the percentile format are created once for the whole sheet. Column widths come from the
+ * longest value written to each column instead of {@code autoSizeColumn}, which has to keep every row in memory
+ * and measures each cell through AWT font metrics.
+ */
+final class LeaderboardExcelExporter {
+
+    private static final int ROW_WINDOW = 100;
+
+    private static final String[] COLUMNS = {"Rank", "Handle", "Codeforces_Handle", "Codeforces_Rating", "Geeksforgeeks_Handle", "Geeksforgeeks_Rating", "Geeksforgeeks_Practice_Rating", "Leetcode_Handle", "Leetcode_Rating", "Codechef_Handle", "Codechef_Rating", "Hackerrank_Handle", "Hackerrank_Rating", "Percentile"};
+
+    // Font sizes of the header and body cells, against the 11 point font column widths are measured in
+    private static final short HEADER_POINTS = 20;
+    private static final short BODY_POINTS = 14;
+    private static final double DEFAULT_POINTS = 11;
+
+    private LeaderboardExcelExporter() {
+    }
+
+    /**
+     * Writes the leaderboard, one row per user in rank order, and prints each row to the console.
+     *
+     * @param  file    the workbook to write
+     * @param  ranked  the users, best first, with their percentiles set
+     * @throws IOException  if the workbook cannot be written
+     */
+    static void write(Path file, List<User> ranked) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            SXSSFSheet sheet = workbook.createSheet("Leaderboard");
+
+            // Create bold font with size 20 for column headers
+            Font boldFont = workbook.createFont();
+            boldFont.setBold(true);
+            boldFont.setFontHeightInPoints(HEADER_POINTS);
+
+            Font boldFont2 = workbook.createFont();
+            boldFont2.setBold(true);
+            boldFont2.setFontHeightInPoints(BODY_POINTS);
+
+            // Create bold centered cell style with 20 font size for the header
+            CellStyle boldCenteredCellStyle = workbook.createCellStyle();
+            boldCenteredCellStyle.setAlignment(HorizontalAlignment.CENTER);
+            boldCenteredCellStyle.setFont(boldFont);
+            boldCenteredCellStyle.setFillForegroundColor(IndexedColors.LIGHT_TURQUOISE1.getIndex());
+            setThickBorders(boldCenteredCellStyle);
+            boldCenteredCellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            // Create bold cell style with 14 font size for normal cells
+            CellStyle boldCellStyle = workbook.createCellStyle();
+            boldCellStyle.setAlignment(HorizontalAlignment.CENTER);
+            boldCellStyle.setFont(boldFont2);
+            boldCellStyle.setFillForegroundColor(IndexedColors.TURQUOISE.getIndex());
+            setThickBorders(boldCellStyle);
+            boldCellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+
+            DecimalFormat df = new DecimalFormat("#.##");
+            int[] widestHeader = new int[COLUMNS.length];
+            int[] widestBody = new int[COLUMNS.length];
+
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < COLUMNS.length; i++) {
+                Cell cell = headerRow.createCell(i);
+                cell.setCellStyle(boldCenteredCellStyle);
+                cell.setCellValue(COLUMNS[i]);
+                widestHeader[i] = COLUMNS[i].length();
+            }
+
+            int rank = 1;
+            for (User user : ranked) {
+                double percentileD = Double.parseDouble(df.format(user.getPercentile()));
+                // convert to string and add % at the end
+                String percentile = percentileD + "%";
+                Object[] data = {rank, user.getHandle(), user.getCodeforcesHandle(), user.getCodeforcesRating(),
+                        user.getGeeksforgeeksHandle(), user.getGeeksforgeeksRating(), user.getgeeksforgeeksPracticeRating(),
+                        user.getLeetcodeHandle(), user.getLeetcodeRating(), user.getCodechefHandle(), user.getCodechefRating(),
+                        user.getHackerrankHandle(), user.getHackerrankRating(), percentile};
+                System.out.println(rank + ". " + user.getHandle() + " - " + user.getCodeforcesRating() + " - " + user.getGeeksforgeeksRating() + " - " + user.getgeeksforgeeksPracticeRating() + " - " + user.getLeetcodeRating() + " - " + user.getCodechefRating() + " - " + user.getHackerrankRating() + " - " + percentile);
+
+                Row row = sheet.createRow(rank);
+                for (int i = 0; i < data.length; i++) {
+                    Cell cell = row.createCell(i);
+                    cell.setCellStyle(boldCellStyle);
+                    if (data[i] instanceof String value) {
+                        cell.setCellValue(value);
+                    } else if (data[i] instanceof Integer value) {
+                        cell.setCellValue(value);
+                    }
+                    if (data[i] != null) {
+                        widestBody[i] = Math.max(widestBody[i], data[i].toString().length());
+                    }
+                }
+                rank++;
+            }
+
+            for (int i = 0; i < COLUMNS.length; i++) {
+                sheet.setColumnWidth(i, columnWidth(widestHeader[i], widestBody[i]));
+            }
+
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (OutputStream out = Files.newOutputStream(file)) {
+                workbook.write(out);
+            }
+        } finally {
+            // Delete the temporary files holding the flushed rows
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private static void setThickBorders(CellStyle style) {
+        style.setBorderBottom(BorderStyle.THICK);
+        style.setBorderTop(BorderStyle.THICK);
+        style.setBorderLeft(BorderStyle.THICK);
+        style.setBorderRight(BorderStyle.THICK);
+    }
+
+    /**
+     * @return  a column width, in 1/256ths of a default character, that fits the longest header and body values
+     *          in their larger bold fonts, plus a character of padding on each side
+     */
+    private static int columnWidth(int headerChars, int bodyChars) {
+        double chars = Math.max(headerChars * HEADER_POINTS, bodyChars * BODY_POINTS) / DEFAULT_POINTS + 2;
+        // Excel's maximum column width is 255 characters
+        return (int) Math.min(255 * 256, Math.ceil(chars * 256));
+    }
+}
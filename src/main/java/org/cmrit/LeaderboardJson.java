@@ -0,0 +1,114 @@
+package org.cmrit;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Streaming decoder for the leaderboard-shaped JSON the platforms answer with: an object holding a few scalar fields
+ * (status, count, next, ...) and one array of row objects, each with a handle and a score.
+ *
+ * The body is read token by token with a {@link JsonReader} straight from the response stream. Only the handle and
+ * score of each row are read, every other field is skipped, and rows whose handle the caller does not want are
+ * dropped on the spot, so a large page costs a few strings instead of a full object graph.
+ */
+final class LeaderboardJson {
+
+    /**
+     * A row that was kept.
+     */
+    record Row(String handle, double score) {
+    }
+
+    /**
+     * What was read from one response.
+     *
+     * @param rows          the kept rows, in response order
+     * @param fields        the top-level scalar fields, as strings; JSON null is left out
+     * @param rowsPresent   whether the response had the rows array at all
+     * @param rowCount      number of rows in the array, kept or not
+     * @param minScore      lowest score of any row, kept or not; {@code Double.NaN} if there were none
+     */
+    record Page(List<Row> rows, Map<String, String> fields, boolean rowsPresent, int rowCount, double minScore) {
+    }
+
+    private LeaderboardJson() {
+    }
+
+    /**
+     * Decodes a leaderboard response.
+     *
+     * @param  body         the (decompressed) response body; not closed
+     * @param  rowsField    name of the top-level array holding the rows
+     * @param  handleField  name of the handle field in a row
+     * @param  scoreField   name of the score field in a row; a row without one scores 0
+     * @param  keep         decides from the handle whether a row is kept
+     * @return              the decoded page
+     * @throws IOException  if the body cannot be read or is not the expected JSON
+     */
+    static Page read(InputStream body, String rowsField, String handleField, String scoreField, Predicate<String> keep) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        Map<String, String> fields = new HashMap<>();
+        boolean rowsPresent = false;
+        int rowCount = 0;
+        double minScore = Double.NaN;
+
+        JsonReader reader = new JsonReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                JsonToken token = reader.peek();
+                if (name.equals(rowsField) && token == JsonToken.BEGIN_ARRAY) {
+                    rowsPresent = true;
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        String handle = null;
+                        double score = 0;
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            String rowField = reader.nextName();
+                            if (reader.peek() == JsonToken.NULL) {
+                                reader.skipValue();
+                            } else if (rowField.equals(handleField)) {
+                                handle = reader.nextString();
+                            } else if (rowField.equals(scoreField)) {
+                                score = reader.nextDouble();
+                            } else {
+                                reader.skipValue();
+                            }
+                        }
+                        reader.endObject();
+
+                        rowCount++;
+                        if (Double.isNaN(minScore) || score < minScore) {
+                            minScore = score;
+                        }
+                        if (handle != null && keep.test(handle)) {
+                            rows.add(new Row(handle, score));
+                        }
+                    }
+                    reader.endArray();
+                } else if (token == JsonToken.STRING || token == JsonToken.NUMBER || token == JsonToken.BOOLEAN) {
+                    fields.put(name, token == JsonToken.BOOLEAN ? String.valueOf(reader.nextBoolean()) : reader.nextString());
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IllegalStateException | NumberFormatException e) {
+            // JsonReader reports JSON of the wrong shape with unchecked exceptions
+            throw new IOException("Unexpected leaderboard JSON: " + e.getMessage(), e);
+        }
+        return new Page(rows, fields, rowsPresent, rowCount, minScore);
+    }
+}
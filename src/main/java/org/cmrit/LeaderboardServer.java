@@ -0,0 +1,372 @@
+package org.cmrit;
+
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves a {@link LiveLeaderboard} as JSON over HTTP, one virtual thread per request, so clients fetch the page of
+ * the leaderboard they show instead of the whole Excel sheet.
+ *
+ * <ul>
+ *   <li>{@code GET /api/leaderboard}: one page of rows in the columnar layout of the web JSON, with {@code total},
+ *       {@code page}, {@code pageSize} and {@code pages}. Parameters: {@code page} (from 1), {@code size} (default
+ *       {@link #DEFAULT_PAGE_SIZE}, at most {@link #MAX_PAGE_SIZE}), {@code sort} (one of
+ *       {@link LeaderboardSnapshot#SORT_COLUMNS}), {@code order} ({@code asc} or {@code desc}; rank and handle sort
+ *       ascending by default, the rest descending), {@code platform} with {@code min} and/or {@code max} to filter on
+ *       a rating, {@code prefix} to filter on the start of the roster handle, and {@code minRank}/{@code maxRank}.
+ *       Pages in rank order with at most a rank range are read straight from the rank index.</li>
+ *   <li>{@code GET /api/students/<handle>}: one student's row as an object keyed by column name.</li>
+ *   <li>{@code GET /api/top?k=N}: the N best students (default 10), columnar.</li>
+ *   <li>{@code GET /api/around?handle=<handle>} or {@code ?rank=N}: the students within {@code radius} ranks
+ *       (default 5) of a student or a rank, columnar, with the {@code rank} they are centred on.</li>
+ *   <li>{@code GET /api/meta}: the number of students, the columns and the accepted sort and platform names.</li>
+ * </ul>
+ *
+ * A response is a pure function of the leaderboard's data and the request URL, so every successful response
+ * carries the data's strong ETag and a request whose {@code If-None-Match} holds it gets a bodyless 304 before
+ * any query runs, in this process or after a restart on the same data. Responses are marked {@code no-cache}:
+ * clients may keep them but revalidate before each use.
+ */
+final class LeaderboardServer {
+
+    static final int DEFAULT_PAGE_SIZE = LeaderboardWebExporter.PAGE_SIZE;
+    static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Writes the JSON body of a successful response.
+     */
+    private interface Body {
+        void write(JsonWriter json) throws IOException;
+    }
+
+    /**
+     * Validates a request and returns its body, null for 404.
+     */
+    private interface Endpoint {
+        Body respond(LiveLeaderboard leaderboard, String path, Map<String, String> params);
+    }
+
+    /**
+     * A rendered response; {@code body} is null for 304.
+     */
+    private record Response(int status, String etag, byte[] body) {
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final LiveLeaderboard leaderboard;
+
+    private LeaderboardServer(HttpServer server, ExecutorService executor, LiveLeaderboard leaderboard) {
+        this.server = server;
+        this.executor = executor;
+        this.leaderboard = leaderboard;
+    }
+
+    /**
+     * Starts serving a leaderboard.
+     *
+     * @param  port         the port to listen on, on every interface
+     * @param  leaderboard  the leaderboard to serve
+     * @return              the running server
+     * @throws IOException  if the port cannot be bound
+     */
+    static LeaderboardServer start(int port, LiveLeaderboard leaderboard) throws IOException {
+        // The JDK server writes headers and body separately; with Nagle's algorithm on, the body waits for the
+        // client's delayed ACK and every keep-alive response takes ~40 ms. Read once, when the first server is created
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        LeaderboardServer leaderboardServer = new LeaderboardServer(server, executor, leaderboard);
+        server.createContext("/api/leaderboard", exchange -> leaderboardServer.handle(exchange, LeaderboardServer::leaderboard));
+        server.createContext("/api/students/", exchange -> leaderboardServer.handle(exchange, LeaderboardServer::student));
+        server.createContext("/api/top", exchange -> leaderboardServer.handle(exchange, LeaderboardServer::top));
+        server.createContext("/api/around", exchange -> leaderboardServer.handle(exchange, LeaderboardServer::around));
+        server.createContext("/api/meta", exchange -> leaderboardServer.handle(exchange, LeaderboardServer::meta));
+        server.setExecutor(executor);
+        server.start();
+        System.out.println("Serving " + leaderboard.size() + " students on http://localhost:" + server.getAddress().getPort() + "/api/leaderboard");
+        return leaderboardServer;
+    }
+
+    /**
+     * Stops accepting requests, lets those in flight finish for up to a second and shuts the executor down.
+     */
+    void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            // Rendered under the read lock, so the body and its ETag come from the same version; sent outside it
+            send(exchange, leaderboard.read(() -> respond(exchange, endpoint)));
+        } catch (RuntimeException e) {
+            System.err.println("Error serving " + exchange.getRequestURI() + ": " + e.getMessage());
+            exchange.sendResponseHeaders(500, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Response respond(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        Body body;
+        try {
+            body = endpoint.respond(leaderboard, exchange.getRequestURI().getPath(), parseQuery(exchange.getRequestURI().getRawQuery()));
+        } catch (IllegalArgumentException e) {
+            return new Response(400, null, render(json -> json.beginObject().name("error").value(e.getMessage()).endObject()));
+        }
+        if (body == null) {
+            return new Response(404, null, render(json -> json.beginObject().name("error").value("Not found").endObject()));
+        }
+        String etag = leaderboard.etag();
+        if (matchesETag(exchange.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+            return new Response(304, etag, null);
+        }
+        return new Response(200, etag, render(body));
+    }
+
+    private static byte[] render(Body body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (JsonWriter json = new JsonWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8))) {
+            body.write(json);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        if (response.etag() != null) {
+            exchange.getResponseHeaders().set("ETag", response.etag());
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        }
+        if (response.body() == null) {
+            exchange.sendResponseHeaders(response.status(), -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        if (exchange.getRequestMethod().equals("HEAD")) {
+            exchange.sendResponseHeaders(response.status(), -1);
+            return;
+        }
+        exchange.sendResponseHeaders(response.status(), response.body().length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response.body());
+        }
+    }
+
+    /**
+     * @return  whether an {@code If-None-Match} header lists the given tag, comparing weakly as RFC 9110 asks for
+     *          this header
+     */
+    private static boolean matchesETag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(name, value);
+        }
+        return params;
+    }
+
+    private static int intParam(Map<String, String> params, String name, int defaultValue, int min, int max) {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        int parsed;
+        try {
+            parsed = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number: " + value);
+        }
+        if (parsed < min || parsed > max) {
+            throw new IllegalArgumentException(name + " must be between " + min + " and " + max + ": " + value);
+        }
+        return parsed;
+    }
+
+    private static Body leaderboard(LiveLeaderboard leaderboard, String path, Map<String, String> params) {
+        if (!path.equals("/api/leaderboard")) {
+            return null;
+        }
+        int page = intParam(params, "page", 1, 1, Integer.MAX_VALUE);
+        int size = intParam(params, "size", DEFAULT_PAGE_SIZE, 1, MAX_PAGE_SIZE);
+
+        String sort = params.getOrDefault("sort", "rank").toLowerCase(Locale.ROOT);
+        if (!LeaderboardSnapshot.SORT_COLUMNS.contains(sort)) {
+            throw new IllegalArgumentException("sort must be one of " + LeaderboardSnapshot.SORT_COLUMNS + ": " + sort);
+        }
+        String order = params.getOrDefault("order", sort.equals("rank") || sort.equals("handle") ? "asc" : "desc");
+        if (!order.equals("asc") && !order.equals("desc")) {
+            throw new IllegalArgumentException("order must be asc or desc: " + order);
+        }
+
+        int platform = -1;
+        String platformName = params.get("platform");
+        if (platformName != null) {
+            platform = Arrays.asList(LeaderboardSnapshot.PLATFORMS).indexOf(platformName.toLowerCase(Locale.ROOT));
+            if (platform < 0) {
+                throw new IllegalArgumentException("platform must be one of " + Arrays.toString(LeaderboardSnapshot.PLATFORMS) + ": " + platformName);
+            }
+        } else if (params.containsKey("min") || params.containsKey("max")) {
+            throw new IllegalArgumentException("min and max filter the rating of a platform");
+        }
+        int minRating = intParam(params, "min", Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        int maxRating = intParam(params, "max", Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        String prefix = params.get("prefix");
+        if (prefix != null && prefix.isEmpty()) {
+            prefix = null;
+        }
+        int minRank = intParam(params, "minRank", 1, 1, Integer.MAX_VALUE);
+        int maxRank = intParam(params, "maxRank", Integer.MAX_VALUE, 1, Integer.MAX_VALUE);
+
+        long offset = (long) (page - 1) * size;
+        if (sort.equals("rank") && order.equals("asc") && platform < 0 && prefix == null) {
+            // Consecutive ranks: read them off the rank index instead of scanning a snapshot
+            int lastRank = Math.min(maxRank, leaderboard.size());
+            int total = Math.max(0, lastRank - minRank + 1);
+            long fromRank = minRank + offset;
+            return json -> writePage(json, total, page, size, fromRank > lastRank ? List.of()
+                    : leaderboard.rows((int) fromRank, (int) Math.min(fromRank + size - 1, lastRank)));
+        }
+
+        LeaderboardSnapshot.Query query = new LeaderboardSnapshot.Query(sort, order.equals("asc"), platform,
+                minRating, maxRating, prefix == null ? null : prefix.toLowerCase(Locale.ROOT),
+                minRank, maxRank);
+        return json -> {
+            LeaderboardSnapshot.Page result = leaderboard.snapshot().select(query, (int) Math.min(offset, Integer.MAX_VALUE), size);
+            writePage(json, result.total(), page, size, result.rows());
+        };
+    }
+
+    private static void writePage(JsonWriter json, int total, int page, int size, List<Object[]> rows) throws IOException {
+        json.beginObject();
+        json.name("total").value(total);
+        json.name("page").value(page);
+        json.name("pageSize").value(size);
+        json.name("pages").value((total + size - 1) / size);
+        json.name("count").value(rows.size());
+        LeaderboardWebExporter.writeColumns(json, rows);
+        json.endObject();
+    }
+
+    private static Body student(LiveLeaderboard leaderboard, String path, Map<String, String> params) {
+        // The path is already percent-decoded
+        String handle = path.substring("/api/students/".length());
+        Integer id = handle.isEmpty() ? null : leaderboard.idOf(handle);
+        if (id == null) {
+            return null;
+        }
+        return json -> LeaderboardWebExporter.writeRow(json, leaderboard.row(id));
+    }
+
+    private static Body top(LiveLeaderboard leaderboard, String path, Map<String, String> params) {
+        if (!path.equals("/api/top")) {
+            return null;
+        }
+        int k = intParam(params, "k", 10, 1, MAX_PAGE_SIZE);
+        return json -> {
+            List<Object[]> rows = leaderboard.rows(1, k);
+            json.beginObject();
+            json.name("count").value(rows.size());
+            LeaderboardWebExporter.writeColumns(json, rows);
+            json.endObject();
+        };
+    }
+
+    private static Body around(LiveLeaderboard leaderboard, String path, Map<String, String> params) {
+        if (!path.equals("/api/around")) {
+            return null;
+        }
+        int radius = intParam(params, "radius", 5, 0, MAX_PAGE_SIZE / 2);
+        int rank;
+        String handle = params.get("handle");
+        if (handle != null) {
+            Integer id = leaderboard.idOf(handle);
+            if (id == null) {
+                return null;
+            }
+            rank = leaderboard.rankOf(id);
+        } else if (params.containsKey("rank")) {
+            rank = intParam(params, "rank", 1, 1, Math.max(1, leaderboard.size()));
+        } else {
+            throw new IllegalArgumentException("around needs a handle or a rank");
+        }
+        return json -> {
+            List<Object[]> rows = leaderboard.rows(rank - radius, rank + radius);
+            json.beginObject();
+            json.name("rank").value(rank);
+            json.name("count").value(rows.size());
+            LeaderboardWebExporter.writeColumns(json, rows);
+            json.endObject();
+        };
+    }
+
+    private static Body meta(LiveLeaderboard leaderboard, String path, Map<String, String> params) {
+        if (!path.equals("/api/meta")) {
+            return null;
+        }
+        return json -> {
+            json.beginObject();
+            json.name("count").value(leaderboard.size());
+            json.name("pageSize").value(DEFAULT_PAGE_SIZE);
+            json.name("maxPageSize").value(MAX_PAGE_SIZE);
+            json.name("columns");
+            LeaderboardWebExporter.writeColumnNames(json);
+            json.name("sort").beginArray();
+            for (String column : LeaderboardSnapshot.SORT_COLUMNS) {
+                json.value(column);
+            }
+            json.endArray();
+            json.name("platforms").beginArray();
+            for (String platform : LeaderboardSnapshot.PLATFORMS) {
+                json.value(platform);
+            }
+            json.endArray();
+            json.endObject();
+        };
+    }
+}
@@ -0,0 +1,157 @@
+package org.cmrit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * One version of a {@link LiveLeaderboard}, ready to be paged, sorted and filtered.
+ *
+ * Rows are kept in rank order as built by {@link LeaderboardWebExporter#rows(List)}, next to the rating columns they
+ * are filtered on. The row order of every sortable column is computed once, in both directions, so a query is a
+ * single pass over one {@code int[]} that keeps the rows of the requested page and counts every match. A snapshot
+ * never changes once built.
+ */
+final class LeaderboardSnapshot {
+
+    // Ratings sinks in ScoreColumns order, the names rating filters and sorts use
+    static final String[] PLATFORMS = {"codeforces", "gfg", "gfg_practice", "leetcode", "codechef", "hackerrank"};
+    static final List<String> SORT_COLUMNS = List.of("rank", "handle", "percentile", "codeforces", "gfg", "gfg_practice", "leetcode", "codechef", "hackerrank");
+
+    /**
+     * A leaderboard query; the bounds are inclusive.
+     *
+     * @param sort          one of {@link #SORT_COLUMNS}
+     * @param ascending     whether to sort in increasing order
+     * @param platform      index in {@link #PLATFORMS} of the rating to filter on, or -1 for none
+     * @param minRating     lowest rating on {@code platform}
+     * @param maxRating     highest rating on {@code platform}
+     * @param handlePrefix  lower-case prefix of the roster handle, or null for any
+     * @param minRank       best rank, counted from 1
+     * @param maxRank       worst rank
+     */
+    record Query(String sort, boolean ascending, int platform, int minRating, int maxRating, String handlePrefix,
+                 int minRank, int maxRank) {
+    }
+
+    /**
+     * The rows of one page of a query.
+     *
+     * @param total  number of rows matching the query
+     * @param rows   the rows of the page, in sort order
+     */
+    record Page(int total, List<Object[]> rows) {
+    }
+
+    private final Object[][] rows;
+    private final int[][] ratings = new int[ScoreColumns.PLATFORMS][];
+    private final String[] handles;
+    private final Map<String, int[]> ascendingOrders = new HashMap<>();
+    private final Map<String, int[]> descendingOrders = new HashMap<>();
+
+    /**
+     * @param  ranked  the users, best first, with their percentiles set
+     */
+    LeaderboardSnapshot(List<User> ranked) {
+        int size = ranked.size();
+        rows = LeaderboardWebExporter.rows(ranked);
+        ScoreColumns columns = ScoreColumns.of(ranked);
+        handles = new String[size];
+        for (int position = 0; position < size; position++) {
+            handles[position] = ranked.get(position).getHandle().toLowerCase(Locale.ROOT);
+        }
+
+        // Rows are stored best first, so position order is rank order and decreasing percentile
+        int[] byRank = IntStream.range(0, size).toArray();
+        int[] byRankReversed = IntStream.range(0, size).map(i -> size - 1 - i).toArray();
+        ascendingOrders.put("rank", byRank);
+        descendingOrders.put("rank", byRankReversed);
+        ascendingOrders.put("percentile", byRankReversed);
+        descendingOrders.put("percentile", byRank);
+        // Each order sorts one long per row: the sort value in the high half, the position in the low half, so
+        // equal values stay in rank order both ways
+        String[] distinctHandles = Arrays.stream(handles).distinct().sorted().toArray(String[]::new);
+        long[] handleAscending = new long[size];
+        long[] handleDescending = new long[size];
+        for (int position = 0; position < size; position++) {
+            long rank = Arrays.binarySearch(distinctHandles, handles[position]);
+            handleAscending[position] = rank << 32 | position;
+            handleDescending[position] = (distinctHandles.length - 1 - rank) << 32 | position;
+        }
+        ascendingOrders.put("handle", sorted(handleAscending));
+        descendingOrders.put("handle", sorted(handleDescending));
+        for (int platform = 0; platform < ScoreColumns.PLATFORMS; platform++) {
+            int[] column = columns.column(platform);
+            ratings[platform] = column;
+            long[] ascending = new long[size];
+            long[] descending = new long[size];
+            for (int position = 0; position < size; position++) {
+                ascending[position] = (long) column[position] << 32 | position;
+                descending[position] = (long) ~column[position] << 32 | position;
+            }
+            ascendingOrders.put(PLATFORMS[platform], sorted(ascending));
+            descendingOrders.put(PLATFORMS[platform], sorted(descending));
+        }
+    }
+
+    /**
+     * Sorts row keys and returns the positions, kept in their low 32 bits, in key order.
+     */
+    private static int[] sorted(long[] keys) {
+        Arrays.sort(keys);
+        int[] order = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    int size() {
+        return rows.length;
+    }
+
+    /**
+     * Runs a query and returns one page of it.
+     *
+     * @param  query   the query
+     * @param  offset  number of matching rows to skip
+     * @param  limit   most rows to return
+     * @return         the page
+     * @throws IllegalArgumentException  if the sort column is unknown
+     */
+    Page select(Query query, int offset, int limit) {
+        int[] order = (query.ascending() ? ascendingOrders : descendingOrders).get(query.sort());
+        if (order == null) {
+            throw new IllegalArgumentException("Unknown sort column: " + query.sort());
+        }
+        List<Object[]> page = new ArrayList<>(Math.min(limit, rows.length));
+        int total = 0;
+        for (int position : order) {
+            if (matches(query, position)) {
+                if (total >= offset && page.size() < limit) {
+                    page.add(rows[position]);
+                }
+                total++;
+            }
+        }
+        return new Page(total, page);
+    }
+
+    private boolean matches(Query query, int position) {
+        int rank = position + 1;
+        if (rank < query.minRank() || rank > query.maxRank()) {
+            return false;
+        }
+        if (query.platform() >= 0) {
+            int rating = ratings[query.platform()][position];
+            if (rating < query.minRating() || rating > query.maxRating()) {
+                return false;
+            }
+        }
+        return query.handlePrefix() == null || handles[position].startsWith(query.handlePrefix());
+    }
+}
@@ -0,0 +1,172 @@
+package org.cmrit;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persists the computed leaderboard to the {@code leaderboard} table of the leaderboard SQLite database.
+ *
+ * Each build is written as a delta against the stored table: rows whose ratings and percentile are unchanged are
+ * left alone, changed or new rows are upserted and rows of students no longer on the roster are deleted. On a
+ * typical day only a small share of the students move, so a build touches a handful of rows. Everything happens in
+ * a single transaction with the writes sent as JDBC batches, so readers see either the previous leaderboard or the
+ * new one.
+ */
+final class LeaderboardStore {
+
+    private static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS leaderboard (" +
+            "handle TEXT PRIMARY KEY," +
+            "codeforces_rating INTEGER," +
+            "codechef_rating INTEGER," +
+            "leetcode_rating INTEGER," +
+            "geeksforgeeks_rating INTEGER," +
+            "geeksforgeeks_practice_rating INTEGER," +
+            "hackerrank_rating INTEGER, " +
+            "percentile REAL)";
+
+    private static final String SELECT_SQL = "SELECT handle, codeforces_rating, codechef_rating, leetcode_rating, " +
+            "geeksforgeeks_rating, geeksforgeeks_practice_rating, hackerrank_rating, percentile FROM leaderboard";
+
+    private static final String UPSERT_SQL = "INSERT INTO leaderboard " +
+            "(handle, codeforces_rating, codechef_rating, leetcode_rating, geeksforgeeks_rating, geeksforgeeks_practice_rating, hackerrank_rating, percentile) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (handle) DO UPDATE SET " +
+            "codeforces_rating = excluded.codeforces_rating, codechef_rating = excluded.codechef_rating, " +
+            "leetcode_rating = excluded.leetcode_rating, geeksforgeeks_rating = excluded.geeksforgeeks_rating, " +
+            "geeksforgeeks_practice_rating = excluded.geeksforgeeks_practice_rating, " +
+            "hackerrank_rating = excluded.hackerrank_rating, percentile = excluded.percentile";
+
+    private static final String DELETE_SQL = "DELETE FROM leaderboard WHERE handle = ?";
+
+    /**
+     * One leaderboard row, in table column order.
+     */
+    private record StoredRow(int codeforces, int codechef, int leetcode, int geeksforgeeks, int geeksforgeeksPractice,
+                             int hackerrank, Double percentile) {
+
+        static StoredRow of(User user) {
+            Integer practiceRating = user.getgeeksforgeeksPracticeRating();
+            return new StoredRow(user.getCodeforcesRating(), user.getCodechefRating(), user.getLeetcodeRating(),
+                    user.getGeeksforgeeksRating(), practiceRating == null ? 0 : practiceRating,
+                    user.getHackerrankRating(), user.getPercentile());
+        }
+    }
+
+    /**
+     * What a write changed.
+     *
+     * @param inserted   handles that were not in the table before
+     * @param updated    handles whose ratings or percentile changed
+     * @param deleted    handles that left the roster
+     * @param unchanged  number of rows left as they were
+     */
+    record Changes(List<String> inserted, List<String> updated, List<String> deleted, int unchanged) {
+    }
+
+    private LeaderboardStore() {
+    }
+
+    /**
+     * Brings the leaderboard table in line with the given users.
+     *
+     * @param  dbName  the SQLite database holding the leaderboard
+     * @param  users   every user on the leaderboard, with final ratings and percentiles
+     * @return         the rows that were inserted, updated and deleted
+     * @throws IOException  if the leaderboard cannot be written; the previous table is then left untouched
+     */
+    static Changes write(String dbName, Collection<User> users) throws IOException {
+        long start = System.nanoTime();
+        Changes changes;
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dbName)) {
+            try (Statement statement = conn.createStatement()) {
+                // WAL lets readers keep the old leaderboard while the new one is written; NORMAL is durable enough
+                // for a table that can be rebuilt from the ratings files at any time
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute("PRAGMA synchronous=NORMAL");
+            }
+
+            conn.setAutoCommit(false);
+            try (Statement statement = conn.createStatement();
+                 PreparedStatement upsert = conn.prepareStatement(UPSERT_SQL);
+                 PreparedStatement delete = conn.prepareStatement(DELETE_SQL)) {
+                statement.executeUpdate(CREATE_TABLE_SQL);
+                Map<String, StoredRow> stored = readRows(statement);
+
+                List<String> inserted = new ArrayList<>();
+                List<String> updated = new ArrayList<>();
+                for (User user : users) {
+                    StoredRow row = StoredRow.of(user);
+                    StoredRow previous = stored.remove(user.getHandle());
+                    if (row.equals(previous)) {
+                        continue;
+                    }
+                    (previous == null ? inserted : updated).add(user.getHandle());
+                    upsert.setString(1, user.getHandle());
+                    upsert.setInt(2, row.codeforces());
+                    upsert.setInt(3, row.codechef());
+                    upsert.setInt(4, row.leetcode());
+                    upsert.setInt(5, row.geeksforgeeks());
+                    upsert.setInt(6, row.geeksforgeeksPractice());
+                    upsert.setInt(7, row.hackerrank());
+                    if (row.percentile() == null) {
+                        upsert.setNull(8, Types.REAL);
+                    } else {
+                        upsert.setDouble(8, row.percentile());
+                    }
+                    upsert.addBatch();
+                }
+                // Whatever is left in the table is no longer on the roster
+                List<String> deleted = new ArrayList<>(stored.keySet());
+                for (String handle : deleted) {
+                    delete.setString(1, handle);
+                    delete.addBatch();
+                }
+
+                upsert.executeBatch();
+                delete.executeBatch();
+                conn.commit();
+                changes = new Changes(inserted, updated, deleted, users.size() - inserted.size() - updated.size());
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IOException("Error uploading leaderboard to database: " + e.getMessage(), e);
+        }
+        System.out.println("Leaderboard saved in " + (System.nanoTime() - start) / 1_000_000 + " ms: "
+                + changes.inserted().size() + " inserted, " + changes.updated().size() + " updated, "
+                + changes.deleted().size() + " deleted, " + changes.unchanged() + " unchanged.");
+        return changes;
+    }
+
+    private static Map<String, StoredRow> readRows(Statement statement) throws SQLException {
+        Map<String, StoredRow> rows = new HashMap<>();
+        try (ResultSet resultSet = statement.executeQuery(SELECT_SQL)) {
+            while (resultSet.next()) {
+                // wasNull() describes the last column read, so check it before reading the ratings
+                double percentile = resultSet.getDouble("percentile");
+                Double storedPercentile = resultSet.wasNull() ? null : percentile;
+                rows.put(resultSet.getString("handle"), new StoredRow(
+                        resultSet.getInt("codeforces_rating"),
+                        resultSet.getInt("codechef_rating"),
+                        resultSet.getInt("leetcode_rating"),
+                        resultSet.getInt("geeksforgeeks_rating"),
+                        resultSet.getInt("geeksforgeeks_practice_rating"),
+                        resultSet.getInt("hackerrank_rating"),
+                        storedPercentile));
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,227 @@
+package org.cmrit;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.DecimalFormat;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the ranked leaderboard as static JSON for the web page, so the browser no longer downloads and parses the
+ * whole Excel sheet.
+ *
+ * <ul>
+ *   <li>{@code leaderboard.json}: every row, columnar: {@code {"generatedAt", "count", "columns": [...],
+ *       "values": [[column 0 values], [column 1 values], ...]}}. Each column name appears once instead of once per
+ *       row. {@code leaderboard.json.gz} is the same file gzip-compressed, for hosts that serve precompressed
+ *       files.</li>
+ *   <li>{@code pages/<generatedAt>/page-N.json}: the same columnar layout for {@link #PAGE_SIZE} rows at a time in
+ *       rank order, counted from 1, so the page can show the top of the leaderboard after a download of a few KB.
+ *       Each build writes its shards to a directory of its own.</li>
+ *   <li>{@code index.json}: {@code generatedAt}, {@code count}, {@code pageSize}, {@code pages}, {@code pagesDir}
+ *       and {@code columns}, which tells the page which shards to fetch.</li>
+ * </ul>
+ * Column names are the field names of the grid in {@code app.js}, and values are formatted as in the Excel sheet.
+ *
+ * Files are written under temporary names and moved into place, the index last, and the previous build's shards
+ * are only deleted once the new index has replaced the old one. A reader that loads either index therefore finds
+ * complete files, except that one which loaded the old index just before the swap may see its shards disappear;
+ * {@code app.js} then falls back to the Excel sheet.
+ */
+final class LeaderboardWebExporter {
+
+    static final int PAGE_SIZE = 100;
+
+    private static final String[] COLUMNS = {"Rank", "Handle", "Codeforces_Handle", "Codeforces_Rating", "GFG_Handle", "GFG_Contest_Score", "GFG_Practice_Score", "Leetcode_Handle", "Leetcode_Rating", "Codechef_Handle", "Codechef_Rating", "HackerRank_Handle", "HackerRank_Practice_Score", "Percentile"};
+
+    private LeaderboardWebExporter() {
+    }
+
+    /**
+     * Replaces the web artifacts in {@code dir} with the given leaderboard.
+     *
+     * @param  dir     the output directory
+     * @param  ranked  the users, best first, with their percentiles set
+     * @throws IOException  if a file cannot be written
+     */
+    static void write(Path dir, List<User> ranked) throws IOException {
+        long generatedAt = System.currentTimeMillis();
+        Object[][] rows = rows(ranked);
+
+        Path pagesDir = dir.resolve("pages");
+        String runDir = String.valueOf(generatedAt);
+        Path runPagesDir = pagesDir.resolve(runDir);
+        Files.createDirectories(runPagesDir);
+
+        Path leaderboard = temporary(dir.resolve("leaderboard.json"));
+        try (OutputStream out = Files.newOutputStream(leaderboard)) {
+            writeColumnar(out, generatedAt, rows, 0, rows.length);
+        }
+        replace(leaderboard, dir.resolve("leaderboard.json"));
+        Path compressed = temporary(dir.resolve("leaderboard.json.gz"));
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+            writeColumnar(out, generatedAt, rows, 0, rows.length);
+        }
+        replace(compressed, dir.resolve("leaderboard.json.gz"));
+
+        // Nothing points at this build's directory yet, so its shards can be written in place
+        int pages = (rows.length + PAGE_SIZE - 1) / PAGE_SIZE;
+        for (int page = 1; page <= pages; page++) {
+            int from = (page - 1) * PAGE_SIZE;
+            try (OutputStream out = Files.newOutputStream(runPagesDir.resolve("page-" + page + ".json"))) {
+                writeColumnar(out, generatedAt, rows, from, Math.min(from + PAGE_SIZE, rows.length));
+            }
+        }
+
+        Path index = temporary(dir.resolve("index.json"));
+        try (JsonWriter json = new JsonWriter(new OutputStreamWriter(Files.newOutputStream(index), StandardCharsets.UTF_8))) {
+            json.beginObject();
+            json.name("generatedAt").value(generatedAt);
+            json.name("count").value(rows.length);
+            json.name("pageSize").value(PAGE_SIZE);
+            json.name("pages").value(pages);
+            json.name("pagesDir").value("pages/" + runDir + "/");
+            json.name("columns");
+            writeColumnNames(json);
+            json.endObject();
+        }
+        replace(index, dir.resolve("index.json"));
+
+        // Only now is no index left pointing at the older shards
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(pagesDir)) {
+            for (Path entry : entries) {
+                if (!entry.getFileName().toString().equals(runDir)) {
+                    deleteRecursively(entry);
+                }
+            }
+        }
+        System.out.println("Web leaderboard written: " + rows.length + " rows in " + pages + " pages.");
+    }
+
+    private static Path temporary(Path target) {
+        return target.resolveSibling(target.getFileName() + ".tmp");
+    }
+
+    private static void replace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(path)) {
+                for (Path entry : entries) {
+                    deleteRecursively(entry);
+                }
+            }
+        }
+        Files.delete(path);
+    }
+
+    /**
+     * @param  ranked  the users, best first, with their percentiles set
+     * @return         one row of values per user, in {@link #COLUMNS} order
+     */
+    static Object[][] rows(List<User> ranked) {
+        Object[][] rows = new Object[ranked.size()][];
+        DecimalFormat df = new DecimalFormat("#.##");
+        for (int i = 0; i < ranked.size(); i++) {
+            rows[i] = row(i + 1, ranked.get(i), df);
+        }
+        return rows;
+    }
+
+    /**
+     * @param  rank  the user's rank, counted from 1
+     * @param  user  the user, with the percentile set
+     * @param  df    the percentile format, {@code "#.##"}; not thread-safe, so one per thread
+     * @return       the user's values, in {@link #COLUMNS} order
+     */
+    static Object[] row(int rank, User user, DecimalFormat df) {
+        String percentile = Double.parseDouble(df.format(user.getPercentile())) + "%";
+        return new Object[]{rank, user.getHandle(), user.getCodeforcesHandle(), user.getCodeforcesRating(),
+                user.getGeeksforgeeksHandle(), user.getGeeksforgeeksRating(), user.getgeeksforgeeksPracticeRating(),
+                user.getLeetcodeHandle(), user.getLeetcodeRating(), user.getCodechefHandle(), user.getCodechefRating(),
+                user.getHackerrankHandle(), user.getHackerrankRating(), percentile};
+    }
+
+    private static void writeColumnar(OutputStream out, long generatedAt, Object[][] rows, int from, int to) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        JsonWriter json = new JsonWriter(writer);
+        json.beginObject();
+        json.name("generatedAt").value(generatedAt);
+        json.name("count").value(to - from);
+        writeColumns(json, Arrays.asList(rows).subList(from, to));
+        json.endObject();
+        // Flush without closing, the caller owns the stream
+        json.flush();
+    }
+
+    /**
+     * Writes the {@code columns} and {@code values} members of a columnar object.
+     *
+     * @param  json  the writer, inside an object
+     * @param  rows  rows from {@link #rows(List)}
+     * @throws IOException  if the writer fails
+     */
+    static void writeColumns(JsonWriter json, List<Object[]> rows) throws IOException {
+        json.name("columns");
+        writeColumnNames(json);
+        json.name("values").beginArray();
+        for (int column = 0; column < COLUMNS.length; column++) {
+            json.beginArray();
+            for (Object[] row : rows) {
+                writeValue(json, row[column]);
+            }
+            json.endArray();
+        }
+        json.endArray();
+    }
+
+    /**
+     * Writes one row as an object keyed by column name.
+     *
+     * @param  json  the writer
+     * @param  row   a row from {@link #rows(List)}
+     * @throws IOException  if the writer fails
+     */
+    static void writeRow(JsonWriter json, Object[] row) throws IOException {
+        json.beginObject();
+        for (int column = 0; column < COLUMNS.length; column++) {
+            json.name(COLUMNS[column]);
+            writeValue(json, row[column]);
+        }
+        json.endObject();
+    }
+
+    static void writeColumnNames(JsonWriter json) throws IOException {
+        json.beginArray();
+        for (String column : COLUMNS) {
+            json.value(column);
+        }
+        json.endArray();
+    }
+
+    private static void writeValue(JsonWriter json, Object value) throws IOException {
+        if (value instanceof Number number) {
+            json.value(number);
+        } else {
+            json.value((String) value);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package org.cmrit;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Leetcode contest ratings through the GraphQL API.
+ */
+public final class LeetcodeScraper implements PlatformScraper {
+
+    // The pooled client shared by all scrapers
+    private static final ScraperHttpClient HTTP = ScraperHttpClient.shared();
+
+    private static final String LEETCODE_URL = "https://leetcode.com/graphql?query=";
+    private static final String LEETCODE_GRAPHQL_URL = "https://leetcode.com/graphql";
+
+    @Override
+    public String name() {
+        return "leetcode";
+    }
+
+    @Override
+    public String rosterPlatform() {
+        return "leetcode";
+    }
+
+    @Override
+    public void scrape(ArrayList<User> users) {
+        if (CMRITLeaderboard2025.hasOption("batch-size")) {
+            scrapeLeetcodeBatched(users, CMRITLeaderboard2025.intOption("batch-size", LEETCODE_BATCH_SIZE),
+                    CMRITLeaderboard2025.intOption("max-in-flight", LEETCODE_MAX_IN_FLIGHT));
+        } else if (CMRITLeaderboard2025.hasOption("sequential")) {
+            scrapeLeetcode(users);
+        } else {
+            scrapeLeetcodeConcurrent(users, CMRITLeaderboard2025.intOption("max-in-flight", LEETCODE_MAX_IN_FLIGHT));
+        }
+    }
+
+    private static final int MAX_REQUESTS_PER_SECOND = 2;
+    private static final int LEETCODE_MAX_IN_FLIGHT = 8;
+    private static final int LEETCODE_BATCH_SIZE = 20;
+
+    // Shared by every Leetcode request, sequential or concurrent, so the platform limit holds across threads
+    private static final TokenBucket LEETCODE_RATE_LIMITER = new TokenBucket(MAX_REQUESTS_PER_SECOND, MAX_REQUESTS_PER_SECOND);
+
+    /**
+     * Scrapes Leetcode ratings for a list of users, one request at a time, and updates their user objects with the
+     * ratings. A handle that fails is written to leetcode_failures.txt instead of aborting the run, as in
+     * {@link #scrapeLeetcodeConcurrent(ArrayList, int)}.
+     *
+     * @param  resultSet  ArrayList of User objects to scrape ratings for
+     */
+    private static void scrapeLeetcode(ArrayList<User> resultSet) {
+        // Scraper logic for Leetcode
+        System.out.println("Leetcode scraping in progress...");
+
+        try (ScrapeJournal journal = CMRITLeaderboard2025.openJournal("leetcode");
+             RatingsSink sink = CMRITLeaderboard2025.openRatingsSink("leetcode")) {
+            ArrayList<User> pending = CMRITLeaderboard2025.resumeFromJournal(journal, sink, resultSet);
+            pending = CMRITLeaderboard2025.reuseFreshRatings(sink, pending, User::getLeetcodeHandle);
+            int counter = 1;
+            int size = pending.size();
+            List<ParallelFetcher.Failure<User>> failures = new ArrayList<>();
+
+            for (User user : pending) {
+                String handle = user.getHandle();
+                String leetcodeHandle = user.getLeetcodeHandle();
+
+                try {
+                    // Rate limiting
+                    LEETCODE_RATE_LIMITER.acquire();
+
+                    int rating = fetchLeetcodeRating(leetcodeHandle);
+
+                    // Update the user object with the leetcode rating
+                    user.setLeetcodeRating(rating);
+
+                    // Print the rating information
+                    System.out.println("(" + counter + "/" + size + ") " + "Leetcode rating for " + handle + " with leetcode handle " + leetcodeHandle + " is: " + rating);
+
+                    sink.write(handle, leetcodeHandle, rating);
+
+                    counter++;
+                } catch (IOException | JSONException e) {
+                    // A failed request or unparseable answer only loses this handle
+                    System.err.println("Error fetching leetcode rating for " + handle + " with leetcode handle " + leetcodeHandle + ": " + e.getMessage());
+                    failures.add(new ParallelFetcher.Failure<>(user, e.getClass().getSimpleName() + ": " + e.getMessage()));
+                } catch (InterruptedException e) {
+                    // Interrupted exception handling
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for rate limiting", e);
+                }
+            }
+            sink.commit();
+            journal.complete();
+
+            CMRITLeaderboard2025.writeFailures("leetcode", failures, User::getLeetcodeHandle);
+            System.out.println("Leetcode scraping completed with " + failures.size() + " failures.");
+        } catch (IOException e) {
+            System.err.println("Error writing Leetcode ratings: " + e.getMessage());
+        }
+        System.out.println("========================================");
+    }
+
+    /**
+     * Scrapes Leetcode ratings on virtual threads with at most {@code maxInFlight} requests outstanding.
+     * All requests draw from {@link #LEETCODE_RATE_LIMITER}, so the run goes as fast as the rate limit allows
+     * and a slow response only holds up its own slot. Handles that fail are written to leetcode_failures.txt.
+     *
+     * @param  resultSet    ArrayList of User objects to scrape ratings for
+     * @param  maxInFlight  maximum number of requests outstanding at once
+     */
+    private static void scrapeLeetcodeConcurrent(ArrayList<User> resultSet, int maxInFlight) {
+        System.out.println("Leetcode scraping in progress (concurrent, " + maxInFlight + " requests in flight)...");
+
+        AtomicInteger counter = new AtomicInteger(1);
+
+        try (ScrapeJournal journal = CMRITLeaderboard2025.openJournal("leetcode");
+             RatingsSink sink = CMRITLeaderboard2025.openRatingsSink("leetcode")) {
+            ArrayList<User> pending = CMRITLeaderboard2025.resumeFromJournal(journal, sink, resultSet);
+            pending = CMRITLeaderboard2025.reuseFreshRatings(sink, pending, User::getLeetcodeHandle);
+            int size = pending.size();
+
+            ParallelFetcher<User> fetcher = new ParallelFetcher<>(maxInFlight, LEETCODE_RATE_LIMITER);
+            List<ParallelFetcher.Failure<User>> failures = fetcher.fetchAll(pending, user -> {
+                String handle = user.getHandle();
+                String leetcodeHandle = user.getLeetcodeHandle();
+                int rating = fetchLeetcodeRating(leetcodeHandle);
+                user.setLeetcodeRating(rating);
+                System.out.println("(" + counter.getAndIncrement() + "/" + size + ") " + "Leetcode rating for " + handle + " with leetcode handle " + leetcodeHandle + " is: " + rating);
+                sink.write(handle, leetcodeHandle, rating);
+            });
+            sink.commit();
+            journal.complete();
+
+            CMRITLeaderboard2025.writeFailures("leetcode", failures, User::getLeetcodeHandle);
+            System.out.println("Leetcode scraping completed with " + failures.size() + " failures.");
+        } catch (IOException e) {
+            System.err.println("Error writing Leetcode ratings: " + e.getMessage());
+        }
+        System.out.println("========================================");
+    }
+
+    /**
+     * Scrapes Leetcode ratings in batches: each GraphQL request carries one aliased {@code userContestRanking}
+     * selection per user ({@code u0}, {@code u1}, ...), so a run needs about {@code batchSize} times fewer requests.
+     * Batches run on virtual threads and every request draws from {@link #LEETCODE_RATE_LIMITER}. Users that
+     * Leetcode reports an error for, and every user of a batch whose request fails, are written to
+     * leetcode_failures.txt.
+     *
+     * @param  resultSet    ArrayList of User objects to scrape ratings for
+     * @param  batchSize    number of users per request
+     * @param  maxInFlight  maximum number of requests outstanding at once
+     */
+    private static void scrapeLeetcodeBatched(ArrayList<User> resultSet, int batchSize, int maxInFlight) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("--batch-size must be at least 1");
+        }
+        System.out.println("Leetcode scraping in progress (" + batchSize + " users per request, " + maxInFlight + " requests in flight)...");
+
+        AtomicInteger counter = new AtomicInteger(1);
+        List<ParallelFetcher.Failure<User>> failures = Collections.synchronizedList(new ArrayList<>());
+
+        try (ScrapeJournal journal = CMRITLeaderboard2025.openJournal("leetcode");
+             RatingsSink sink = CMRITLeaderboard2025.openRatingsSink("leetcode")) {
+            ArrayList<User> pending = CMRITLeaderboard2025.resumeFromJournal(journal, sink, resultSet);
+            pending = CMRITLeaderboard2025.reuseFreshRatings(sink, pending, User::getLeetcodeHandle);
+            int size = pending.size();
+
+            List<List<User>> batches = new ArrayList<>();
+            for (int i = 0; i < size; i += batchSize) {
+                batches.add(new ArrayList<>(pending.subList(i, Math.min(size, i + batchSize))));
+            }
+
+            ParallelFetcher<List<User>> fetcher = new ParallelFetcher<>(maxInFlight, LEETCODE_RATE_LIMITER);
+            List<ParallelFetcher.Failure<List<User>>> batchFailures = fetcher.fetchAll(batches, batch -> {
+                List<String> aliases = new ArrayList<>();
+                for (int i = 0; i < batch.size(); i++) {
+                    aliases.add("u" + i);
+                }
+                Map<String, String> errors = new HashMap<>();
+                Map<String, Integer> ratings = getRatings(HTTP.postString(LEETCODE_GRAPHQL_URL, "application/json",
+                        buildLeetcodeBatchQuery(batch, aliases)), aliases, errors);
+
+                for (int i = 0; i < batch.size(); i++) {
+                    User user = batch.get(i);
+                    Integer rating = ratings.get(aliases.get(i));
+                    if (rating == null) {
+                        failures.add(new ParallelFetcher.Failure<>(user, errors.get(aliases.get(i))));
+                        continue;
+                    }
+                    user.setLeetcodeRating(rating);
+                    System.out.println("(" + counter.getAndIncrement() + "/" + size + ") " + "Leetcode rating for " + user.getHandle() + " with leetcode handle " + user.getLeetcodeHandle() + " is: " + rating);
+                    sink.write(user.getHandle(), user.getLeetcodeHandle(), rating);
+                }
+            });
+            for (ParallelFetcher.Failure<List<User>> batchFailure : batchFailures) {
+                for (User user : batchFailure.item()) {
+                    failures.add(new ParallelFetcher.Failure<>(user, batchFailure.reason()));
+                }
+            }
+            sink.commit();
+            journal.complete();
+
+            CMRITLeaderboard2025.writeFailures("leetcode", failures, User::getLeetcodeHandle);
+            System.out.println("Leetcode scraping completed with " + failures.size() + " failures in " + batches.size() + " requests.");
+        } catch (IOException e) {
+            System.err.println("Error writing Leetcode ratings: " + e.getMessage());
+        }
+        System.out.println("========================================");
+    }
+
+    /**
+     * Builds the JSON body of a batched Leetcode GraphQL request. Handles are passed as variables rather than
+     * spliced into the query, so they need no escaping.
+     *
+     * @param  batch    the users to query
+     * @param  aliases  the alias of each user's selection, in the same order
+     * @return          the request body
+     */
+    private static String buildLeetcodeBatchQuery(List<User> batch, List<String> aliases) throws JSONException {
+        StringBuilder parameters = new StringBuilder();
+        StringBuilder selections = new StringBuilder();
+        JSONObject variables = new JSONObject();
+        for (int i = 0; i < batch.size(); i++) {
+            String alias = aliases.get(i);
+            if (i > 0) parameters.append(", ");
+            parameters.append('$').append(alias).append(": String!");
+            selections.append(alias).append(": userContestRanking(username: $").append(alias).append(") { rating } ");
+            variables.put(alias, batch.get(i).getLeetcodeHandle());
+        }
+        String query = "query(" + parameters + ") { " + selections + "}";
+        return new JSONObject().put("query", query).put("variables", variables).toString();
+    }
+
+    /**
+     * Fetches the contest rating of a single Leetcode user. The caller is responsible for rate limiting.
+     *
+     * @param  leetcodeHandle  the Leetcode username
+     * @return                 the contest rating, or 0 if the user has not taken part in a contest
+     * @throws IOException     if the request fails or Leetcode rejects the handle with a non-2xx status
+     */
+    private static int fetchLeetcodeRating(String leetcodeHandle) throws IOException, JSONException {
+        // Construct URL for API request
+        String encodedLeetcodeHandle = URLEncoder.encode(leetcodeHandle, StandardCharsets.UTF_8);
+        String url = LEETCODE_URL + URLEncoder.encode("query{userContestRanking(username:\"" + encodedLeetcodeHandle + "\"){rating}}", StandardCharsets.UTF_8);
+
+        // Parse JSON response
+        return getRating(new StringBuilder(HTTP.getString(url)));
+    }
+
+    private static int getRating(StringBuilder jsonContent) throws JSONException {
+        List<String> field = List.of("userContestRanking");
+        // A single-user query treats an unknown user like one without contests, as it always has
+        return getRatings(jsonContent.toString(), field, new HashMap<>()).getOrDefault(field.get(0), 0);
+    }
+
+    /**
+     * Reads the contest ratings out of a Leetcode GraphQL response with one {@code userContestRanking} selection
+     * per alias. A null selection means the user has not taken part in a contest and gets 0. An alias that
+     * Leetcode reports an error for (its {@code errors[].path} starts with the alias), or that is missing from
+     * the response, gets no rating and is put in {@code failures} instead.
+     *
+     * @param  jsonContent  the response body
+     * @param  aliases      the aliases the query selected
+     * @param  failures     receives alias to error message for every alias without a rating
+     * @return              ratings by alias
+     * @throws JSONException  if the response is not JSON or has no data at all
+     */
+    private static Map<String, Integer> getRatings(String jsonContent, List<String> aliases, Map<String, String> failures) throws JSONException {
+        JSONObject jsonObject = new JSONObject(jsonContent);
+
+        JSONArray errors = jsonObject.optJSONArray("errors");
+        if (errors != null) {
+            for (int i = 0; i < errors.length(); i++) {
+                JSONObject error = errors.optJSONObject(i);
+                JSONArray path = error == null ? null : error.optJSONArray("path");
+                if (path != null && path.length() > 0) {
+                    failures.putIfAbsent(path.optString(0), error.optString("message", "unknown error"));
+                }
+            }
+        }
+
+        JSONObject data = jsonObject.optJSONObject("data");
+        if (data == null) {
+            throw new JSONException("No data in Leetcode response" + (errors != null ? ": " + errors : ""));
+        }
+
+        Map<String, Integer> ratings = new HashMap<>();
+        for (String alias : aliases) {
+            if (failures.containsKey(alias)) continue;
+            if (!data.has(alias)) {
+                failures.put(alias, "missing from response");
+                continue;
+            }
+            int rating = 0; // Default rating is 0
+            JSONObject userContestRanking = data.optJSONObject(alias);
+            if (userContestRanking != null) {
+                double rawRating = userContestRanking.optDouble("rating", Double.NaN);
+                if (!Double.isNaN(rawRating)) {
+                    // Convert rating to int if it's not NaN
+                    rating = (int) rawRating;
+                }
+            }
+            ratings.put(alias, rating);
+        }
+        return ratings;
+    }
+}
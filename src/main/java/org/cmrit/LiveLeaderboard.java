@@ -0,0 +1,247 @@
+package org.cmrit;
+
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The leaderboard {@link LeaderboardServer} serves, kept up to date as ratings are refreshed.
+ *
+ * Ranks come from a {@link RankIndex}: a student whose rating changes is re-ranked in O(log n), and rank lookups,
+ * the top of the board and the students around a rank are O(log n) per row, always current. Sorting on other
+ * columns and filtering go through a {@link LeaderboardSnapshot}, built on the first such query after a change.
+ *
+ * Refreshes take the write lock; queries run inside {@link #read(Read)}, so a response never mixes two versions.
+ * {@link #etag()} is a digest of the students' handles and ratings, kept up to date as ratings change, so the same
+ * data gets the same tag in every process and clients keep their cached responses across restarts.
+ */
+final class LiveLeaderboard {
+
+    /**
+     * A query run under the read lock.
+     */
+    interface Read<T> {
+        T apply() throws IOException;
+    }
+
+    /**
+     * What a refresh changed.
+     *
+     * @param changed  students whose rating changed
+     * @param unknown  handles in the ratings that are not on the leaderboard, and were ignored
+     * @param rebuilt  whether every student was re-ranked, because a platform's best rating changed or because
+     *                 enough ratings changed that one full re-rank was cheaper
+     */
+    record Refresh(int changed, int unknown, boolean rebuilt) {
+    }
+
+    // More changes than 1 in this many students are applied with one full re-rank
+    private static final int BULK_FRACTION = 16;
+
+    private final List<User> users;
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final ScoreColumns scores;
+    private final RankIndex index;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Sum of every student's rowHash(); a sum, so a refresh updates it for just the students that changed
+    private long digest;
+    private long version;
+    private LeaderboardSnapshot snapshot;
+    private long snapshotVersion = -1;
+
+    /**
+     * @param  users   the users, in student id order of {@code scores}, with their percentiles set
+     * @param  scores  the computed scores
+     */
+    LiveLeaderboard(List<User> users, ScoreColumns scores) {
+        this.users = users;
+        this.scores = scores;
+        this.index = new RankIndex(scores);
+        for (int id = 0; id < users.size(); id++) {
+            ids.put(users.get(id).getHandle().toLowerCase(Locale.ROOT), id);
+            digest += rowHash(id);
+        }
+    }
+
+    /**
+     * Runs a query against one version of the leaderboard; the methods below must only be called from inside it.
+     */
+    <T> T read(Read<T> read) throws IOException {
+        lock.readLock().lock();
+        try {
+            return read.apply();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        return users.size();
+    }
+
+    /**
+     * @return  the strong entity tag, quoted, of every response built from the current version
+     */
+    String etag() {
+        return "\"" + Long.toHexString(digest) + "\"";
+    }
+
+    /**
+     * @return  a hash of what a response can show of a student and depends on: the roster and platform handles and
+     *          the ratings, which also determine the percentiles and ranks
+     */
+    private long rowHash(int id) {
+        User user = users.get(id);
+        long hash = Objects.hash(user.getHandle(), user.getCodeforcesHandle(), user.getGeeksforgeeksHandle(),
+                user.getLeetcodeHandle(), user.getCodechefHandle(), user.getHackerrankHandle());
+        hash = hash * 0x9E3779B97F4A7C15L + id;
+        for (int platform = 0; platform < ScoreColumns.PLATFORMS; platform++) {
+            hash = hash * 0x9E3779B97F4A7C15L + scores.column(platform)[id];
+        }
+        // MurmurHash3's finaliser, so that summing the rows does not cancel out small differences
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * @param  handle  a roster handle, in any case
+     * @return         the student's id, or null if the student is not on the leaderboard
+     */
+    Integer idOf(String handle) {
+        return ids.get(handle.toLowerCase(Locale.ROOT));
+    }
+
+    int rankOf(int id) {
+        return index.rankOf(id);
+    }
+
+    /**
+     * @return  the student's row
+     */
+    Object[] row(int id) {
+        return LeaderboardWebExporter.row(index.rankOf(id), users.get(id), new DecimalFormat("#.##"));
+    }
+
+    /**
+     * @return  the rows of the students ranked {@code fromRank} to {@code toRank}, clipped to the ranks that exist
+     */
+    List<Object[]> rows(int fromRank, int toRank) {
+        int[] ranked = index.range(fromRank, toRank);
+        List<Object[]> rows = new ArrayList<>(ranked.length);
+        DecimalFormat df = new DecimalFormat("#.##");
+        for (int i = 0; i < ranked.length; i++) {
+            rows.add(LeaderboardWebExporter.row(Math.max(fromRank, 1) + i, users.get(ranked[i]), df));
+        }
+        return rows;
+    }
+
+    /**
+     * @return  the current version as a sortable, filterable snapshot
+     */
+    synchronized LeaderboardSnapshot snapshot() {
+        // Readers hold the read lock, so the version cannot move while the snapshot is built
+        if (snapshotVersion != version) {
+            List<User> ranked = new ArrayList<>(users.size());
+            for (int id : index.top(users.size())) {
+                ranked.add(users.get(id));
+            }
+            snapshot = new LeaderboardSnapshot(ranked);
+            snapshotVersion = version;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Replaces every student's rating on one platform; a student missing from {@code ratings} gets 0, as in a fresh
+     * build. Only students whose rating changed are re-ranked.
+     *
+     * @param  platform  the platform, e.g. {@link ScoreColumns#CODEFORCES}
+     * @param  ratings   the platform's ratings by roster handle, in any case
+     * @return           what changed
+     */
+    Refresh refresh(int platform, Map<String, Integer> ratings) {
+        lock.writeLock().lock();
+        try {
+            // Matched like idOf(), so exactly the ratings not counted as unknown are applied
+            int[] updated = new int[users.size()];
+            int unknown = 0;
+            for (Map.Entry<String, Integer> rating : ratings.entrySet()) {
+                Integer id = ids.get(rating.getKey().toLowerCase(Locale.ROOT));
+                if (id == null) {
+                    unknown++;
+                } else {
+                    updated[id] = rating.getValue();
+                }
+            }
+            int[] column = scores.column(platform);
+            List<Integer> changed = new ArrayList<>();
+            int newMax = 0;
+            for (int id = 0; id < users.size(); id++) {
+                if (updated[id] != column[id]) {
+                    changed.add(id);
+                }
+                newMax = Math.max(newMax, updated[id]);
+            }
+
+            for (int id : changed) {
+                digest -= rowHash(id);
+            }
+            boolean rebuilt = false;
+            // A new best rescales every student's percentage on the platform, so it always takes one full re-rank
+            if (newMax != scores.maxRating(platform) || changed.size() > users.size() / BULK_FRACTION) {
+                for (int id : changed) {
+                    column[id] = updated[id];
+                }
+                scores.compute();
+                index.rebuild();
+                rebuilt = true;
+            } else {
+                // Raises before drops: the best stays held by someone throughout, so no single update rescales
+                changed.sort(Comparator.comparing((Integer id) -> updated[id] < column[id]));
+                for (int id : changed) {
+                    rebuilt |= index.update(id, platform, updated[id]);
+                }
+            }
+
+            for (int id : changed) {
+                setRating(users.get(id), platform, column[id]);
+                digest += rowHash(id);
+            }
+            if (rebuilt) {
+                for (int id = 0; id < users.size(); id++) {
+                    users.get(id).setPercentile(scores.composite(id));
+                }
+            } else {
+                for (int id : changed) {
+                    users.get(id).setPercentile(scores.composite(id));
+                }
+            }
+            if (!changed.isEmpty()) {
+                version++;
+            }
+            return new Refresh(changed.size(), unknown, rebuilt);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void setRating(User user, int platform, int rating) {
+        switch (platform) {
+            case ScoreColumns.CODEFORCES -> user.setCodeforcesRating(rating);
+            case ScoreColumns.GEEKSFORGEEKS -> user.setGeeksforgeeksRating(rating);
+            case ScoreColumns.GEEKSFORGEEKS_PRACTICE -> user.setgeeksforgeeksPracticeRating(rating);
+            case ScoreColumns.LEETCODE -> user.setLeetcodeRating(rating);
+            case ScoreColumns.CODECHEF -> user.setCodechefRating(rating);
+            case ScoreColumns.HACKERRANK -> user.setHackerrankRating(rating);
+            default -> throw new IllegalArgumentException("Unknown platform column: " + platform);
+        }
+    }
+}
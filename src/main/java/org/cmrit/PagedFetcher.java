@@ -0,0 +1,108 @@
+package org.cmrit;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Walks a paginated leaderboard with a window of pages in flight.
+ *
+ * Pages are loaded on virtual threads, up to {@code window} ahead of the page being processed, but the handler sees
+ * them strictly in page order, so scrapers keep their sequential logic (running totals, stop conditions) while the
+ * network round trips overlap. As soon as the handler asks to stop, the pages still in flight are cancelled.
+ *
+ * @param <P> the parsed form of a page
+ */
+class PagedFetcher<P> {
+
+    /**
+     * Fetches and parses one page. Runs on a worker thread, so it must not touch shared state.
+     */
+    @FunctionalInterface
+    interface Loader<P> {
+        P load(int page) throws Exception;
+    }
+
+    /**
+     * Processes one page, in page order, on the calling thread.
+     */
+    @FunctionalInterface
+    interface Handler<P> {
+        /**
+         * @return  true to go on with the next page, false to stop
+         */
+        boolean onPage(int page, P result) throws IOException;
+    }
+
+    private final String name;
+    private final int window;
+
+    /**
+     * @param  name    what is being walked, for log messages
+     * @param  window  maximum number of pages in flight
+     */
+    PagedFetcher(String name, int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("window must be at least 1");
+        }
+        this.name = name;
+        this.window = window;
+    }
+
+    /**
+     * Loads pages {@code firstPage} to {@code lastPage} and hands them to {@code handler} in order until it returns
+     * false or the last page is reached. A page whose loader throws is logged and skipped, as the page loops this
+     * replaces did.
+     *
+     * @param  firstPage  the first page number
+     * @param  lastPage   the last page number, inclusive
+     * @param  loader     fetches and parses a page
+     * @param  handler    processes a page
+     * @return            the number of pages handed to the handler
+     * @throws IOException           if the handler throws
+     * @throws InterruptedException  if interrupted while waiting for a page
+     */
+    int fetch(int firstPage, int lastPage, Loader<P> loader, Handler<P> handler) throws IOException, InterruptedException {
+        Deque<Future<P>> inFlight = new ArrayDeque<>();
+        int nextPage = firstPage;
+        int page = firstPage;
+        int handled = 0;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                while (page <= lastPage) {
+                    while (inFlight.size() < window && nextPage <= lastPage) {
+                        int pageToLoad = nextPage++;
+                        inFlight.addLast(executor.submit(() -> loader.load(pageToLoad)));
+                    }
+
+                    P result;
+                    try {
+                        result = inFlight.removeFirst().get();
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause() != null ? e.getCause() : e;
+                        System.err.println("Error fetching " + name + " page " + page + ": " + cause.getMessage());
+                        page++;
+                        continue;
+                    }
+
+                    handled++;
+                    if (!handler.onPage(page++, result)) {
+                        break;
+                    }
+                }
+            } finally {
+                // Stop condition hit, handler failed or interrupted: drop the pages nobody will look at
+                for (Future<P> future : inFlight) {
+                    future.cancel(true);
+                }
+                executor.shutdownNow();
+            }
+        }
+        return handled;
+    }
+}
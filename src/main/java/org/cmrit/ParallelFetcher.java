@@ -0,0 +1,90 @@
+package org.cmrit;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs one fetch task per item on virtual threads, with at most {@code maxInFlight} tasks running at once and,
+ * optionally, every task drawing a token from a shared {@link TokenBucket} first.
+ *
+ * A task that throws does not affect the others: the exception is recorded as a {@link Failure} and returned to the
+ * caller once every item has been processed, so one bad handle can no longer abort a whole scrape.
+ *
+ * @param <T> the type of item being fetched, usually {@link User}
+ */
+class ParallelFetcher<T> {
+
+    /**
+     * The work done for a single item.
+     */
+    @FunctionalInterface
+    interface Task<T> {
+        void run(T item) throws Exception;
+    }
+
+    /**
+     * An item whose task threw, along with a short description of what went wrong.
+     */
+    record Failure<T>(T item, String reason) {
+    }
+
+    private final int maxInFlight;
+    private final TokenBucket rateLimiter;
+
+    /**
+     * @param  maxInFlight  maximum number of tasks running at once
+     * @param  rateLimiter  bucket every task takes a token from before running, or null for no rate limit
+     */
+    ParallelFetcher(int maxInFlight, TokenBucket rateLimiter) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        this.maxInFlight = maxInFlight;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Runs {@code task} for every item and waits for all of them to finish.
+     *
+     * @param  items  the items to process
+     * @param  task   the work to do for each item
+     * @return        the items whose task failed, in no particular order
+     */
+    List<Failure<T>> fetchAll(Collection<T> items, Task<T> task) {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        List<Failure<T>> failures = Collections.synchronizedList(new ArrayList<>());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (T item : items) {
+                executor.submit(() -> {
+                    try {
+                        inFlight.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        failures.add(new Failure<>(item, "interrupted"));
+                        return;
+                    }
+                    try {
+                        if (rateLimiter != null) {
+                            rateLimiter.acquire();
+                        }
+                        task.run(item);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        failures.add(new Failure<>(item, "interrupted"));
+                    } catch (Exception e) {
+                        failures.add(new Failure<>(item, e.getClass().getSimpleName() + ": " + e.getMessage()));
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,40 @@
+package org.cmrit;
+
+import org.cmrit.CMRITLeaderboard2025.CustomScrapingException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * One coding platform the leaderboard scrapes ratings from.
+ *
+ * Implementations are listed in {@code META-INF/services/org.cmrit.PlatformScraper} and found with
+ * {@link java.util.ServiceLoader}, so adding a platform means adding a class and a line there rather than another
+ * case in {@code main}. Each platform keeps its own rate limits and concurrency settings, which lets the
+ * {@code all} mode run every platform at the same time.
+ */
+public interface PlatformScraper {
+
+    /**
+     * @return  the mode name that selects this scraper on the command line
+     */
+    String name();
+
+    /**
+     * The platform as named in {@code users_data}: the roster is read from its {@code <platform>_handle} column,
+     * limited to rows whose {@code <platform>_url_exists} is set.
+     *
+     * @return  the roster platform, e.g. "geeksforgeeks"
+     */
+    String rosterPlatform();
+
+    /**
+     * Scrapes the ratings of the given users into the platform's ratings sink, which writes
+     * {@code <name>_ratings.txt} or, in pipeline mode, hands them to the leaderboard.
+     *
+     * @param  users  the users with a verified handle on the platform
+     * @throws IOException               if the ratings cannot be read or written
+     * @throws CustomScrapingException   if the scrape fails as a whole
+     */
+    void scrape(ArrayList<User> users) throws IOException, CustomScrapingException;
+}
@@ -0,0 +1,227 @@
+package org.cmrit;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Order-statistic index over the students of a {@link ScoreColumns}, in leaderboard order: a treap keyed on
+ * (composite percentile descending, student id) whose nodes know the size of their subtree. A student's rank, the
+ * student at a rank and a run of consecutive ranks are found in O(log n), and refreshing one student's rating
+ * re-ranks only that student: O(log n) instead of recomputing and re-sorting the whole leaderboard.
+ *
+ * A refresh that changes a platform's best rating rescales everyone's rating on that platform, so it recomputes
+ * every composite and rebuilds the index in O(n log n).
+ *
+ * Nodes are student ids and the tree lives in parallel {@code int[]}s, like the columns it indexes. The index is
+ * not thread-safe; callers serialise updates against queries.
+ */
+final class RankIndex {
+
+    private static final int NIL = -1;
+
+    private final ScoreColumns scores;
+    private final int[] left;
+    private final int[] right;
+    private final int[] subtreeSize;
+    private final int[] priority;
+    private int root = NIL;
+
+    // Results of split(), which returns two trees
+    private int splitLeft;
+    private int splitRight;
+
+    /**
+     * Indexes every student.
+     *
+     * @param  scores  the scores, already computed
+     */
+    RankIndex(ScoreColumns scores) {
+        int size = scores.size();
+        this.scores = scores;
+        this.left = new int[size];
+        this.right = new int[size];
+        this.subtreeSize = new int[size];
+        this.priority = new int[size];
+        SplittableRandom random = new SplittableRandom(size);
+        for (int id = 0; id < size; id++) {
+            priority[id] = random.nextInt();
+        }
+        rebuild();
+    }
+
+    /**
+     * Re-indexes every student from scratch, after the composites were recomputed.
+     */
+    void rebuild() {
+        Arrays.fill(left, NIL);
+        Arrays.fill(right, NIL);
+        Arrays.fill(subtreeSize, 1);
+        root = NIL;
+        // Appending in rank order only ever walks the right spine
+        for (int id : scores.ranking()) {
+            root = merge(root, id);
+        }
+    }
+
+    int size() {
+        return scores.size();
+    }
+
+    /**
+     * @return  the student's rank, counted from 1
+     */
+    int rankOf(int id) {
+        int rank = 0;
+        int node = root;
+        while (node != id) {
+            if (scores.ranksAbove(id, node)) {
+                node = left[node];
+            } else {
+                rank += sizeOf(left[node]) + 1;
+                node = right[node];
+            }
+        }
+        return rank + sizeOf(left[id]) + 1;
+    }
+
+    /**
+     * @param  rank  a rank, counted from 1
+     * @return       the student at that rank
+     * @throws IndexOutOfBoundsException  if no student has that rank
+     */
+    int idAt(int rank) {
+        if (rank < 1 || rank > size()) {
+            throw new IndexOutOfBoundsException("Rank " + rank + " out of 1.." + size());
+        }
+        int node = root;
+        while (true) {
+            int leftSize = sizeOf(left[node]);
+            if (rank <= leftSize) {
+                node = left[node];
+            } else if (rank == leftSize + 1) {
+                return node;
+            } else {
+                rank -= leftSize + 1;
+                node = right[node];
+            }
+        }
+    }
+
+    /**
+     * @param  fromRank  the first rank, counted from 1
+     * @param  toRank    the last rank, inclusive
+     * @return           the students ranked {@code fromRank} to {@code toRank}, clipped to the ranks that exist
+     */
+    int[] range(int fromRank, int toRank) {
+        int from = Math.max(fromRank, 1);
+        int to = Math.min(toRank, size());
+        if (from > to) {
+            return new int[0];
+        }
+        int[] ids = new int[to - from + 1];
+        for (int rank = from; rank <= to; rank++) {
+            ids[rank - from] = idAt(rank);
+        }
+        return ids;
+    }
+
+    /**
+     * @return  the {@code k} best students, best first
+     */
+    int[] top(int k) {
+        return range(1, k);
+    }
+
+    /**
+     * @return  the students within {@code radius} ranks of {@code rank}, best first
+     */
+    int[] around(int rank, int radius) {
+        return range(rank - radius, rank + radius);
+    }
+
+    /**
+     * Refreshes one student's rating and re-ranks the student.
+     *
+     * @param  id        the student
+     * @param  platform  the platform, e.g. {@link ScoreColumns#CODEFORCES}
+     * @param  rating    the new rating
+     * @return           whether the platform's best rating changed, so every student was re-ranked
+     */
+    boolean update(int id, int platform, int rating) {
+        // Unlink under the old key, since the tree is searched by it
+        remove(id);
+        if (scores.update(id, platform, rating)) {
+            rebuild();
+            return true;
+        }
+        insert(id);
+        return false;
+    }
+
+    private void insert(int id) {
+        left[id] = NIL;
+        right[id] = NIL;
+        subtreeSize[id] = 1;
+        split(root, id, false);
+        root = merge(merge(splitLeft, id), splitRight);
+    }
+
+    private void remove(int id) {
+        split(root, id, false);
+        int before = splitLeft;
+        split(splitRight, id, true);
+        // splitLeft is now the student alone
+        root = merge(before, splitRight);
+    }
+
+    /**
+     * Splits a tree into the students ranked above {@code id} (and {@code id} itself when {@code inclusive}) and the
+     * rest, leaving the two in {@link #splitLeft} and {@link #splitRight}.
+     */
+    private void split(int node, int id, boolean inclusive) {
+        if (node == NIL) {
+            splitLeft = NIL;
+            splitRight = NIL;
+            return;
+        }
+        if (scores.ranksAbove(node, id) || (inclusive && node == id)) {
+            split(right[node], id, inclusive);
+            right[node] = splitLeft;
+            pull(node);
+            splitLeft = node;
+        } else {
+            split(left[node], id, inclusive);
+            left[node] = splitRight;
+            pull(node);
+            splitRight = node;
+        }
+    }
+
+    /**
+     * Joins two trees where every student of {@code a} ranks above every student of {@code b}.
+     */
+    private int merge(int a, int b) {
+        if (a == NIL) {
+            return b;
+        }
+        if (b == NIL) {
+            return a;
+        }
+        if (priority[a] > priority[b]) {
+            right[a] = merge(right[a], b);
+            pull(a);
+            return a;
+        }
+        left[b] = merge(a, left[b]);
+        pull(b);
+        return b;
+    }
+
+    private void pull(int node) {
+        subtreeSize[node] = sizeOf(left[node]) + sizeOf(right[node]) + 1;
+    }
+
+    private int sizeOf(int node) {
+        return node == NIL ? 0 : subtreeSize[node];
+    }
+}
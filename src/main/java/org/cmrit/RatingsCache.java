@@ -0,0 +1,141 @@
+package org.cmrit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The last known rating of every (handle, platform) pair together with when it was fetched, kept in the
+ * {@code ratings_cache} table of the cmrit SQLite database next to {@code users_data}.
+ *
+ * The cache listens to every {@link RatingsSink}, so it is refreshed by every scrape whether or not incremental
+ * mode is on. Its rows go through the same {@link RatingsDatabase} buffer as the progress journals, so one
+ * transaction per flush covers both. In incremental mode the scrapers ask it for entries younger than the TTL and
+ * only re-fetch the rest.
+ */
+class RatingsCache implements RatingsListener, Closeable {
+
+    private static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS ratings_cache (" +
+            "handle TEXT NOT NULL," +
+            "platform TEXT NOT NULL," +
+            "platform_handle TEXT," +
+            "value INTEGER NOT NULL," +
+            "fetched_at INTEGER NOT NULL," +
+            "PRIMARY KEY (handle, platform))";
+
+    private static final String UPSERT_SQL = "INSERT INTO ratings_cache (handle, platform, platform_handle, value, fetched_at) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (handle, platform) DO UPDATE SET " +
+            "platform_handle = excluded.platform_handle, value = excluded.value, fetched_at = excluded.fetched_at " +
+            "WHERE excluded.fetched_at >= ratings_cache.fetched_at";
+
+    /**
+     * A cached rating.
+     */
+    record Entry(String platformHandle, int value, long fetchedAt) {
+    }
+
+    private final RatingsDatabase database;
+    private final PreparedStatement upsertStatement;
+
+    private RatingsCache(RatingsDatabase database, PreparedStatement upsertStatement) {
+        this.database = database;
+        this.upsertStatement = upsertStatement;
+    }
+
+    /**
+     * Opens the cache, creating the table if needed.
+     *
+     * @param  database  the database holding the cache
+     * @return           the cache
+     * @throws IOException  if the table cannot be created
+     */
+    static RatingsCache open(RatingsDatabase database) throws IOException {
+        try {
+            PreparedStatement upsertStatement = database.withConnection(conn -> {
+                try (Statement statement = conn.createStatement()) {
+                    statement.execute(CREATE_TABLE_SQL);
+                }
+                return conn.prepareStatement(UPSERT_SQL);
+            });
+            return new RatingsCache(database, upsertStatement);
+        } catch (SQLException e) {
+            throw new IOException("Error opening ratings cache: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Loads the entries of one platform fetched within the last {@code ttlMillis}.
+     *
+     * @param  platform   the platform, as named by its {@link RatingsSink}
+     * @param  ttlMillis  maximum age of an entry
+     * @return            fresh entries keyed by roster handle
+     * @throws IOException  if the cache cannot be read
+     */
+    Map<String, Entry> loadFresh(String platform, long ttlMillis) throws IOException {
+        Map<String, Entry> entries = new HashMap<>();
+        String sql = "SELECT handle, platform_handle, value, fetched_at FROM ratings_cache WHERE platform = ? AND fetched_at >= ?";
+        try {
+            database.withConnection(conn -> {
+                try (PreparedStatement statement = conn.prepareStatement(sql)) {
+                    statement.setString(1, platform);
+                    statement.setLong(2, System.currentTimeMillis() - ttlMillis);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            entries.put(resultSet.getString("handle"), new Entry(
+                                    resultSet.getString("platform_handle"),
+                                    resultSet.getInt("value"),
+                                    resultSet.getLong("fetched_at")));
+                        }
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new IOException("Error reading ratings cache for " + platform + ": " + e.getMessage(), e);
+        }
+        return entries;
+    }
+
+    /**
+     * Stores a rating unless the cache already holds a newer one for the pair, so replaying old values never
+     * makes them look fresh.
+     */
+    @Override
+    public void onRating(String platform, String handle, String platformHandle, int rating, long fetchedAt) throws IOException {
+        try {
+            database.add(upsertStatement, handle, platform, platformHandle, rating, fetchedAt);
+        } catch (SQLException e) {
+            throw new IOException("Error caching " + platform + " rating for " + handle + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void onCommit(String platform) throws IOException {
+        try {
+            database.flush();
+        } catch (SQLException e) {
+            throw new IOException("Error caching " + platform + " ratings: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes the buffered ratings and releases the cache's statement; the database stays open.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            database.withConnection(conn -> {
+                upsertStatement.close();
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new IOException("Error closing ratings cache: " + e.getMessage(), e);
+        }
+    }
+}
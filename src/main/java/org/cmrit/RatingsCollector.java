@@ -0,0 +1,47 @@
+package org.cmrit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the ratings written to every {@link RatingsSink} in memory, so the {@code pipeline} mode can build the
+ * leaderboard straight from the scrape instead of writing {@code <platform>_ratings.txt} and parsing it back.
+ *
+ * Ratings only become visible once their sink is committed. A platform whose run failed part way therefore looks
+ * the same as it does to {@code build_leaderboard}: it has no new ratings, and the caller falls back to the last
+ * complete ratings file.
+ */
+class RatingsCollector implements RatingsListener {
+
+    /**
+     * A rating as it would have appeared on a line of the ratings file.
+     */
+    record Rating(String handle, String platformHandle, int rating) {
+    }
+
+    private final Map<String, List<Rating>> pending = new HashMap<>();
+    private final Map<String, List<Rating>> committed = new HashMap<>();
+
+    @Override
+    public synchronized void onRating(String platform, String handle, String platformHandle, int rating, long fetchedAt) {
+        pending.computeIfAbsent(platform, p -> new ArrayList<>()).add(new Rating(handle, platformHandle, rating));
+    }
+
+    @Override
+    public synchronized void onCommit(String platform) {
+        List<Rating> ratings = pending.remove(platform);
+        committed.put(platform, ratings != null ? ratings : new ArrayList<>());
+    }
+
+    /**
+     * Hands over the committed ratings of one platform, in the order they were written.
+     *
+     * @param  platform  the sink's platform name
+     * @return           the ratings, or null if no sink for the platform was committed
+     */
+    synchronized List<Rating> take(String platform) {
+        return committed.remove(platform);
+    }
+}
@@ -0,0 +1,164 @@
+package org.cmrit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The connection to the cmrit SQLite database that the {@link ScrapeJournal}s and the {@link RatingsCache} write
+ * ratings through.
+ *
+ * Sinks tell their listeners about every rating while holding the sink's lock, so a commit per rating would put a
+ * disk sync on every scraper thread's path. Rows are instead buffered here and written in one transaction once
+ * {@link #FLUSH_BATCH_SIZE} rows are pending or {@link #FLUSH_INTERVAL_MILLIS} have passed since the last write
+ * (checked as rows arrive), before any read, and when a sink commits or the database is closed; the journal and
+ * cache rows of a batch share its transaction. A crash loses at most the rows not yet flushed, which a resumed run
+ * simply fetches again and the cache only misses.
+ */
+final class RatingsDatabase implements Closeable {
+
+    private static final int FLUSH_BATCH_SIZE = 256;
+    private static final long FLUSH_INTERVAL_MILLIS = 2000;
+
+    /**
+     * Work done on the connection once every buffered row has been written.
+     */
+    interface Work<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    private record Row(PreparedStatement statement, Object[] values) {
+    }
+
+    private final String dbName;
+    private final Connection conn;
+    private final List<Row> pending = new ArrayList<>();
+    private long lastFlush = System.nanoTime();
+
+    private RatingsDatabase(String dbName, Connection conn) {
+        this.dbName = dbName;
+        this.conn = conn;
+    }
+
+    /**
+     * Opens the database.
+     *
+     * @param  dbName  the SQLite database
+     * @return         the database
+     * @throws IOException  if the database cannot be opened
+     */
+    static RatingsDatabase open(String dbName) throws IOException {
+        Connection conn = null;
+        try {
+            conn = DriverManager.getConnection("jdbc:sqlite:" + dbName);
+            try (Statement statement = conn.createStatement()) {
+                // WAL with synchronous=NORMAL keeps each batch's commit cheap while still surviving a crash
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute("PRAGMA synchronous=NORMAL");
+                // Other connections share the database, so wait for a writer rather than fail
+                statement.execute("PRAGMA busy_timeout=30000");
+            }
+            return new RatingsDatabase(dbName, conn);
+        } catch (SQLException e) {
+            try {
+                if (conn != null) conn.close();
+            } catch (SQLException ignored) {
+                // already failing
+            }
+            throw new IOException("Error opening " + dbName + " database: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Runs {@code work} after writing every buffered row, so it sees all of them.
+     *
+     * @param  work  statements to run on the connection
+     * @return       what {@code work} returns
+     * @throws SQLException  if the buffered rows cannot be written or {@code work} fails
+     */
+    synchronized <T> T withConnection(Work<T> work) throws SQLException {
+        flush();
+        return work.run(conn);
+    }
+
+    /**
+     * Buffers one execution of a statement prepared on this database's connection, writing the buffer if it is
+     * due.
+     *
+     * @param  statement  the statement
+     * @param  values     its parameters, in order
+     * @throws SQLException  if the buffer was due and cannot be written
+     */
+    synchronized void add(PreparedStatement statement, Object... values) throws SQLException {
+        pending.add(new Row(statement, values));
+        if (pending.size() >= FLUSH_BATCH_SIZE || System.nanoTime() - lastFlush >= TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MILLIS)) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes every buffered row in one transaction. Rows that fail to write are dropped rather than retried.
+     *
+     * @throws SQLException  if the rows cannot be written
+     */
+    synchronized void flush() throws SQLException {
+        lastFlush = System.nanoTime();
+        if (pending.isEmpty()) {
+            return;
+        }
+        // Batched per statement; a statement's rows keep their order, so the last write of a key still wins
+        Set<PreparedStatement> statements = new LinkedHashSet<>();
+        try {
+            conn.setAutoCommit(false);
+            for (Row row : pending) {
+                for (int i = 0; i < row.values().length; i++) {
+                    row.statement().setObject(i + 1, row.values()[i]);
+                }
+                row.statement().addBatch();
+                statements.add(row.statement());
+            }
+            for (PreparedStatement statement : statements) {
+                statement.executeBatch();
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            try {
+                conn.rollback();
+            } catch (SQLException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            for (PreparedStatement statement : statements) {
+                statement.clearBatch();
+            }
+            throw e;
+        } finally {
+            pending.clear();
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Writes the buffered rows and closes the connection.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            try {
+                flush();
+            } finally {
+                conn.close();
+            }
+        } catch (SQLException e) {
+            throw new IOException("Error closing " + dbName + " database: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package org.cmrit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * The binary {@code <platform>_ratings.bin} file one platform's scrape hands to {@code build_leaderboard}.
+ *
+ * Layout, all integers big-endian or unsigned LEB128 varints:
+ * <pre>
+ *   magic "CMRR" (4 bytes), version (1 byte)
+ *   platform (varint length + UTF-8), written at (8 bytes, epoch milliseconds)
+ *   dictionary: varint count, then each string as varint length + UTF-8
+ *   records: varint count, then per rating the varint dictionary index of the roster handle and of the platform
+ *            handle, and the rating as a zigzag varint
+ *   CRC32 of everything above (4 bytes)
+ * </pre>
+ * Roster and platform handles are mostly the same few thousand strings, so each is stored once in the dictionary
+ * and a record usually takes 4 to 6 bytes. The checksum catches truncated or corrupted artifacts before any of their
+ * ratings reach the leaderboard.
+ */
+final class RatingsFile {
+
+    private static final int MAGIC = 0x434D5252; // "CMRR"
+    private static final byte VERSION = 1;
+
+    /**
+     * What a ratings file holds.
+     *
+     * @param platform   the sink's platform name
+     * @param writtenAt  when the file was written, in epoch milliseconds
+     * @param ratings    the ratings, in the order they were scraped
+     */
+    record Contents(String platform, long writtenAt, List<RatingsCollector.Rating> ratings) {
+    }
+
+    private RatingsFile() {
+    }
+
+    /**
+     * @return  the path of a platform's ratings file in the working directory
+     */
+    static Path path(String platform) {
+        return Paths.get(platform + "_ratings.bin");
+    }
+
+    /**
+     * Writes a ratings file next to {@code target} and atomically moves it into place, so readers see either the
+     * previous complete file or the new one.
+     *
+     * @param  target     the file to replace
+     * @param  platform   the sink's platform name
+     * @param  writtenAt  the timestamp to record, in epoch milliseconds
+     * @param  ratings    the ratings to store
+     * @throws IOException  if the file cannot be written or moved into place
+     */
+    static void write(Path target, String platform, long writtenAt, List<RatingsCollector.Rating> ratings) throws IOException {
+        Map<String, Integer> indexes = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        for (RatingsCollector.Rating rating : ratings) {
+            for (String handle : new String[]{rating.handle(), rating.platformHandle()}) {
+                if (indexes.putIfAbsent(handle, dictionary.size()) == null) {
+                    dictionary.add(handle);
+                }
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + ratings.size() * 24);
+        writeInt(out, MAGIC);
+        out.write(VERSION);
+        writeString(out, platform);
+        writeLong(out, writtenAt);
+        writeVarint(out, dictionary.size());
+        for (String handle : dictionary) {
+            writeString(out, handle);
+        }
+        writeVarint(out, ratings.size());
+        for (RatingsCollector.Rating rating : ratings) {
+            writeVarint(out, indexes.get(rating.handle()));
+            writeVarint(out, indexes.get(rating.platformHandle()));
+            writeVarint(out, (rating.rating() << 1) ^ (rating.rating() >> 31));
+        }
+        CRC32 crc = new CRC32();
+        crc.update(out.toByteArray());
+        writeInt(out, (int) crc.getValue());
+
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temp)) {
+                out.writeTo(file);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Reads a ratings file through a read-only memory mapping and checks its checksum.
+     *
+     * @param  file  the file to read
+     * @return       its contents
+     * @throws IOException  if the file cannot be read, is not a ratings file or fails its checksum
+     */
+    static Contents read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < 9 || buffer.getInt(0) != MAGIC) {
+                throw new IOException(file + " is not a ratings file");
+            }
+            if (buffer.get(4) != VERSION) {
+                throw new IOException(file + " has unsupported version " + buffer.get(4));
+            }
+            int bodyLength = buffer.limit() - 4;
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(0, bodyLength));
+            if ((int) crc.getValue() != buffer.getInt(bodyLength)) {
+                throw new IOException(file + " is corrupt: checksum mismatch");
+            }
+
+            ByteBuffer body = buffer.slice(5, bodyLength - 5);
+            try {
+                String platform = readString(body);
+                long writtenAt = body.getLong();
+                String[] dictionary = new String[readVarint(body)];
+                for (int i = 0; i < dictionary.length; i++) {
+                    dictionary[i] = readString(body);
+                }
+                int count = readVarint(body);
+                List<RatingsCollector.Rating> ratings = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    String handle = dictionary[readVarint(body)];
+                    String platformHandle = dictionary[readVarint(body)];
+                    int zigzag = readVarint(body);
+                    ratings.add(new RatingsCollector.Rating(handle, platformHandle, (zigzag >>> 1) ^ -(zigzag & 1)));
+                }
+                return new Contents(platform, writtenAt, ratings);
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                throw new IOException(file + " is corrupt: " + e, e);
+            }
+        }
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private static void writeLong(ByteArrayOutputStream out, long value) {
+        writeInt(out, (int) (value >>> 32));
+        writeInt(out, (int) value);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static int readVarint(ByteBuffer in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static String readString(ByteBuffer in) throws IOException {
+        byte[] bytes = new byte[readVarint(in)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,329 @@
+package org.cmrit;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only history of every leaderboard build, kept next to the Excel sheet in {@code Leaderboards/history}.
+ *
+ * <ul>
+ *   <li>{@code students.txt}: the student dictionary, one roster handle per line; a student's id is its line
+ *       number, counted from 0, and never changes.</li>
+ *   <li>{@code records.bin}: after an 8 byte header (magic "CMRH", version), fixed-width 16 byte records of
+ *       (run id, student id, column, value), all big-endian ints. Columns are the {@link ScoreColumns} platforms
+ *       followed by {@link #RANK}.</li>
+ *   <li>{@code runs.bin}: the run index; after the same header, one 16 byte entry per run holding when the run was
+ *       recorded and how many records the history had once the run was appended, both as longs. Run {@code r}
+ *       owns the records between the end of run {@code r - 1} and its own end.</li>
+ * </ul>
+ *
+ * A run only records the values that differ from the previous run, so a day on which a few dozen students move adds
+ * a few hundred bytes, and the files stay small enough to commit. The value of a column as of a run is the latest
+ * record for it at or before that run, 0 if there is none; a student missing from a run gets rank 0. Queries
+ * memory-map the records and replay them, which for a year of daily builds is a scan of a few megabytes.
+ *
+ * Records are forced to disk before the run's index entry is appended, and opening the history cuts off anything
+ * past the last complete index entry, so a build that dies halfway leaves no trace.
+ */
+final class RatingsHistory implements Closeable {
+
+    // Column holding the student's leaderboard rank; 0 means not ranked in that run
+    static final int RANK = ScoreColumns.PLATFORMS;
+    static final int COLUMNS = RANK + 1;
+    static final String[] COLUMN_NAMES = {"codeforces", "gfg", "gfg_practice", "leetcode", "codechef", "hackerrank", "rank"};
+
+    private static final int MAGIC = 0x434D5248; // "CMRH"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int RECORD_BYTES = 16;
+    private static final int RUN_BYTES = 16;
+
+    /**
+     * One leaderboard build.
+     *
+     * @param id          the run id, counted from 0
+     * @param recordedAt  when the run was appended, in epoch milliseconds
+     * @param end         number of records in the history once the run was appended
+     */
+    record Run(int id, long recordedAt, long end) {
+    }
+
+    /**
+     * A student's values as of one run, indexed by column.
+     */
+    record Point(Run run, int[] values) {
+    }
+
+    /**
+     * A student's rank in two runs; 0 where the student was not ranked.
+     */
+    record RankChange(String handle, int fromRank, int toRank) {
+    }
+
+    private final Path studentsFile;
+    private final FileChannel records;
+    private final FileChannel runs;
+    private final List<String> students;
+    private final Map<String, Integer> studentIds = new HashMap<>();
+    private final List<Run> runIndex = new ArrayList<>();
+
+    private RatingsHistory(Path studentsFile, FileChannel records, FileChannel runs, List<String> students) {
+        this.studentsFile = studentsFile;
+        this.records = records;
+        this.runs = runs;
+        this.students = students;
+        for (int id = 0; id < students.size(); id++) {
+            studentIds.put(students.get(id), id);
+        }
+    }
+
+    /**
+     * Opens the history in {@code dir}, creating it if needed.
+     *
+     * @param  dir  the history directory
+     * @return      the history
+     * @throws IOException  if the files cannot be opened or are not history files
+     */
+    static RatingsHistory open(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Path studentsFile = dir.resolve("students.txt");
+        List<String> students = Files.exists(studentsFile)
+                ? new ArrayList<>(Files.readAllLines(studentsFile, StandardCharsets.UTF_8))
+                : new ArrayList<>();
+
+        FileChannel records = openChannel(dir.resolve("records.bin"));
+        FileChannel runs;
+        try {
+            runs = openChannel(dir.resolve("runs.bin"));
+        } catch (IOException e) {
+            records.close();
+            throw e;
+        }
+        RatingsHistory history = new RatingsHistory(studentsFile, records, runs, students);
+        try {
+            history.loadRunIndex();
+        } catch (IOException e) {
+            history.close();
+            throw e;
+        }
+        return history;
+    }
+
+    private static FileChannel openChannel(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip();
+                channel.write(header, 0);
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                channel.read(header, 0);
+                if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                    throw new IOException(file + " is not a version " + VERSION + " leaderboard history file");
+                }
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return channel;
+    }
+
+    private void loadRunIndex() throws IOException {
+        long complete = (runs.size() - HEADER_BYTES) / RUN_BYTES;
+        if (complete > 0) {
+            MappedByteBuffer index = runs.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, complete * RUN_BYTES);
+            for (int id = 0; id < complete; id++) {
+                runIndex.add(new Run(id, index.getLong(id * RUN_BYTES), index.getLong(id * RUN_BYTES + 8)));
+            }
+        }
+        // Drop what an interrupted append left behind past the last complete run
+        runs.truncate(HEADER_BYTES + complete * RUN_BYTES);
+        records.truncate(HEADER_BYTES + recordCount() * RECORD_BYTES);
+    }
+
+    private long recordCount() {
+        return runIndex.isEmpty() ? 0 : runIndex.get(runIndex.size() - 1).end();
+    }
+
+    /**
+     * @return  every run, oldest first
+     */
+    List<Run> runs() {
+        return Collections.unmodifiableList(runIndex);
+    }
+
+    /**
+     * Appends a run holding the given values, recording only those that changed since the previous run.
+     *
+     * @param  recordedAt  when the leaderboard was built, in epoch milliseconds
+     * @param  handles     the roster handles of the ranked students
+     * @param  values      per column, each student's value in {@code handles} order
+     * @return             the new run
+     * @throws IOException  if the run cannot be written
+     */
+    Run append(long recordedAt, List<String> handles, int[][] values) throws IOException {
+        int[][] previous = runIndex.isEmpty() ? new int[COLUMNS][students.size()] : stateAt(runIndex.size() - 1);
+        int runId = runIndex.size();
+
+        List<String> newStudents = new ArrayList<>();
+        int[] ids = new int[handles.size()];
+        for (int i = 0; i < handles.size(); i++) {
+            String handle = handles.get(i);
+            Integer id = studentIds.get(handle);
+            if (id == null) {
+                id = students.size();
+                students.add(handle);
+                studentIds.put(handle, id);
+                newStudents.add(handle);
+            }
+            ids[i] = id;
+        }
+
+        ByteBuffer changes = ByteBuffer.allocate(RECORD_BYTES * 64);
+        boolean[] present = new boolean[students.size()];
+        for (int i = 0; i < ids.length; i++) {
+            int id = ids[i];
+            present[id] = true;
+            for (int column = 0; column < COLUMNS; column++) {
+                int before = id < previous[column].length ? previous[column][id] : 0;
+                if (values[column][i] != before) {
+                    changes = putRecord(changes, runId, id, column, values[column][i]);
+                }
+            }
+        }
+        // Students who left the roster are no longer ranked
+        for (int id = 0; id < previous[RANK].length; id++) {
+            if (!present[id] && previous[RANK][id] != 0) {
+                changes = putRecord(changes, runId, id, RANK, 0);
+            }
+        }
+        changes.flip();
+
+        if (!newStudents.isEmpty()) {
+            try (BufferedWriter writer = Files.newBufferedWriter(studentsFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (String handle : newStudents) {
+                    writer.write(handle);
+                    writer.newLine();
+                }
+            }
+        }
+
+        long end = recordCount() + changes.remaining() / RECORD_BYTES;
+        long position = HEADER_BYTES + recordCount() * RECORD_BYTES;
+        while (changes.hasRemaining()) {
+            position += records.write(changes, position);
+        }
+        records.force(false);
+
+        Run run = new Run(runId, recordedAt, end);
+        ByteBuffer entry = ByteBuffer.allocate(RUN_BYTES).putLong(recordedAt).putLong(end).flip();
+        runs.write(entry, HEADER_BYTES + (long) runId * RUN_BYTES);
+        runs.force(false);
+        runIndex.add(run);
+        return run;
+    }
+
+    private static ByteBuffer putRecord(ByteBuffer buffer, int runId, int studentId, int column, int value) {
+        if (buffer.remaining() < RECORD_BYTES) {
+            ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+        return buffer.putInt(runId).putInt(studentId).putInt(column).putInt(value);
+    }
+
+    /**
+     * Reconstructs every student's values as of a run.
+     *
+     * @param  runId  the run
+     * @return        per column, the value of each student id
+     * @throws IOException  if the records cannot be read
+     */
+    int[][] stateAt(int runId) throws IOException {
+        int[][] state = new int[COLUMNS][students.size()];
+        long end = runIndex.get(runId).end();
+        if (end == 0) {
+            return state;
+        }
+        MappedByteBuffer map = records.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, end * RECORD_BYTES);
+        for (int offset = 0; offset < end * RECORD_BYTES; offset += RECORD_BYTES) {
+            state[map.getInt(offset + 8)][map.getInt(offset + 4)] = map.getInt(offset + 12);
+        }
+        return state;
+    }
+
+    /**
+     * Returns a student's values after every run.
+     *
+     * @param  handle  the student's roster handle
+     * @return         one point per run, oldest first; empty if the student was never recorded
+     * @throws IOException  if the records cannot be read
+     */
+    List<Point> series(String handle) throws IOException {
+        Integer id = studentIds.get(handle);
+        List<Point> points = new ArrayList<>();
+        if (id == null || runIndex.isEmpty()) {
+            return points;
+        }
+        long end = recordCount();
+        MappedByteBuffer map = records.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, end * RECORD_BYTES);
+        int[] values = new int[COLUMNS];
+        long record = 0;
+        for (Run run : runIndex) {
+            for (; record < run.end(); record++) {
+                int offset = (int) (record * RECORD_BYTES);
+                if (map.getInt(offset + 4) == id) {
+                    values[map.getInt(offset + 8)] = map.getInt(offset + 12);
+                }
+            }
+            points.add(new Point(run, Arrays.copyOf(values, COLUMNS)));
+        }
+        return points;
+    }
+
+    /**
+     * Compares the ranks of two runs.
+     *
+     * @param  fromRun  the earlier run
+     * @param  toRun    the later run
+     * @return          every student ranked in either run
+     * @throws IOException  if the records cannot be read
+     */
+    List<RankChange> rankChanges(int fromRun, int toRun) throws IOException {
+        int[] from = stateAt(fromRun)[RANK];
+        int[] to = stateAt(toRun)[RANK];
+        List<RankChange> changes = new ArrayList<>();
+        for (int id = 0; id < students.size(); id++) {
+            if (from[id] != 0 || to[id] != 0) {
+                changes.add(new RankChange(students.get(id), from[id], to[id]));
+            }
+        }
+        return changes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            records.close();
+        } finally {
+            runs.close();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.cmrit;
+
+import java.io.IOException;
+
+/**
+ * Receives every rating written to a {@link RatingsSink}, in addition to the ratings file itself.
+ */
+@FunctionalInterface
+interface RatingsListener {
+
+    /**
+     * Called after a rating has been written to the sink.
+     *
+     * @param  platform        the sink's platform name, e.g. "codechef"
+     * @param  handle          the student's roster handle
+     * @param  platformHandle  the student's handle on the platform
+     * @param  rating          the scraped rating
+     * @param  fetchedAt       when the rating was fetched from the platform, in epoch milliseconds; older than
+     *                         "now" when a journaled or cached rating is replayed into a new run
+     * @throws IOException     if the listener fails to record the rating
+     */
+    void onRating(String platform, String handle, String platformHandle, int rating, long fetchedAt) throws IOException;
+
+    /**
+     * Called once the sink has been committed, i.e. the platform's run finished and its ratings are final. A sink
+     * closed without a commit never calls this.
+     *
+     * @param  platform     the sink's platform name
+     * @throws IOException  if the listener fails to act on the commit
+     */
+    default void onCommit(String platform) throws IOException {
+    }
+}
@@ -0,0 +1,182 @@
+package org.cmrit;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the ratings scraped for one platform and writes them to {@code <platform>_ratings.bin} (see
+ * {@link RatingsFile}), and optionally to the text export {@code <platform>_ratings.txt}.
+ *
+ * The binary file needs its dictionary up front, so ratings are kept in memory until {@link #commit()} writes the
+ * file and atomically moves it into place. Text lines go through a single long-lived buffered writer into
+ * {@code <platform>_ratings.txt.tmp}, flushed every {@link #FLUSH_BATCH_SIZE} ratings, and are renamed over the real
+ * file on commit as well. Readers therefore only ever see the previous complete files or the new complete files.
+ * Closing a sink that was never committed (for example because the scraper threw) discards what it collected and
+ * leaves the previous ratings in place. All methods are synchronized, so concurrent scrapers can share one sink.
+ *
+ * Every rating is also passed to the sink's {@link RatingsListener}s, which is how progress journals and caches
+ * see results as they arrive. A sink opened without files only feeds its listeners, for runs that consume the
+ * ratings in-process.
+ */
+class RatingsSink implements Closeable {
+
+    private static final int FLUSH_BATCH_SIZE = 64;
+
+    private final String platform;
+    private final List<RatingsCollector.Rating> ratings;
+    private final Path textTarget;
+    private final Path textTemp;
+    private final BufferedWriter textWriter;
+    private final List<RatingsListener> listeners = new ArrayList<>();
+
+    private int pending;
+    private int written;
+    private boolean closed;
+
+    private RatingsSink(String platform, List<RatingsCollector.Rating> ratings, Path textTarget, Path textTemp, BufferedWriter textWriter) {
+        this.platform = platform;
+        this.ratings = ratings;
+        this.textTarget = textTarget;
+        this.textTemp = textTemp;
+        this.textWriter = textWriter;
+    }
+
+    /**
+     * Opens a sink for a platform's ratings files in the working directory.
+     *
+     * @param  platform    the platform name, used as the file prefix
+     * @param  writeFile   false to skip {@code <platform>_ratings.bin}
+     * @param  exportText  true to also write {@code <platform>_ratings.txt}
+     * @return             a new sink
+     * @throws IOException  if the temporary text file cannot be created
+     */
+    static RatingsSink open(String platform, boolean writeFile, boolean exportText) throws IOException {
+        List<RatingsCollector.Rating> ratings = writeFile ? new ArrayList<>() : null;
+        if (!exportText) {
+            return new RatingsSink(platform, ratings, null, null, null);
+        }
+        Path textTarget = Paths.get(platform + "_ratings.txt");
+        Path textTemp = Paths.get(platform + "_ratings.txt.tmp");
+        BufferedWriter textWriter = Files.newBufferedWriter(textTemp, StandardCharsets.UTF_8);
+        return new RatingsSink(platform, ratings, textTarget, textTemp, textWriter);
+    }
+
+    String getPlatform() {
+        return platform;
+    }
+
+    /**
+     * Registers a listener that is told about every rating written from now on.
+     *
+     * @param  listener  the listener to add
+     */
+    synchronized void addListener(RatingsListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Records a rating that was just fetched.
+     *
+     * @param  handle          the student's roster handle
+     * @param  platformHandle  the student's handle on the platform
+     * @param  rating          the scraped rating
+     * @throws IOException     if the rating cannot be written
+     */
+    void write(String handle, String platformHandle, int rating) throws IOException {
+        write(handle, platformHandle, rating, System.currentTimeMillis());
+    }
+
+    /**
+     * Records a rating fetched at {@code fetchedAt}, e.g. one replayed from the journal or the cache.
+     *
+     * @param  handle          the student's roster handle
+     * @param  platformHandle  the student's handle on the platform
+     * @param  rating          the rating
+     * @param  fetchedAt       when the rating was fetched, in epoch milliseconds
+     * @throws IOException     if the rating cannot be written
+     */
+    synchronized void write(String handle, String platformHandle, int rating, long fetchedAt) throws IOException {
+        if (closed) {
+            throw new IOException(platform + " ratings sink is already closed");
+        }
+        written++;
+        if (ratings != null) {
+            // A missing platform handle is stored as the text line would have spelled it
+            ratings.add(new RatingsCollector.Rating(handle, String.valueOf(platformHandle), rating));
+        }
+        if (textWriter != null) {
+            textWriter.write(handle + "," + platformHandle + "," + rating);
+            textWriter.newLine();
+            if (++pending >= FLUSH_BATCH_SIZE) {
+                textWriter.flush();
+                pending = 0;
+            }
+        }
+        for (RatingsListener listener : listeners) {
+            listener.onRating(platform, handle, platformHandle, rating, fetchedAt);
+        }
+    }
+
+    /**
+     * @return  the number of ratings written so far
+     */
+    synchronized int size() {
+        return written;
+    }
+
+    /**
+     * Writes {@code <platform>_ratings.bin}, atomically replaces {@code <platform>_ratings.txt} with the text
+     * export if there is one, then tells the listeners the run is complete.
+     *
+     * @throws IOException  if a file cannot be written or moved into place
+     */
+    synchronized void commit() throws IOException {
+        if (closed) {
+            throw new IOException(platform + " ratings sink is already closed");
+        }
+        closed = true;
+        try {
+            if (ratings != null) {
+                RatingsFile.write(RatingsFile.path(platform), platform, System.currentTimeMillis(), ratings);
+            }
+        } finally {
+            if (textWriter != null) {
+                textWriter.close();
+            }
+        }
+        if (textWriter != null) {
+            try {
+                Files.move(textTemp, textTarget, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(textTemp, textTarget, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        for (RatingsListener listener : listeners) {
+            listener.onCommit(platform);
+        }
+    }
+
+    /**
+     * Discards the ratings unless {@link #commit()} has already been called.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        if (textWriter == null) return;
+        try {
+            textWriter.close();
+        } finally {
+            Files.deleteIfExists(textTemp);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package org.cmrit;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * The leaderboard's ratings laid out by column: one {@code int[]} per platform and a {@code double[]} of composite
+ * percentiles, all indexed by a dense student id (the position of the student in the collection the columns were
+ * built from).
+ *
+ * Computing the composite walks each column front to back over primitive arrays, which the JIT compiles to tight,
+ * auto-vectorised loops, instead of chasing a {@link User} object and unboxing an {@code Integer} for every rating.
+ * The arithmetic is the same as the per-user formula, term for term and in the same order, so the percentiles are
+ * bit-for-bit identical.
+ */
+final class ScoreColumns {
+
+    // Column order, with the weight of each platform in the composite percentile
+    static final int CODEFORCES = 0;
+    static final int GEEKSFORGEEKS = 1;
+    static final int GEEKSFORGEEKS_PRACTICE = 2;
+    static final int LEETCODE = 3;
+    static final int CODECHEF = 4;
+    static final int HACKERRANK = 5;
+    static final int PLATFORMS = 6;
+    private static final double[] WEIGHTS = {0.3, 0.3, 0.1, 0.1, 0.1, 0.1};
+
+    private final int size;
+    private final int[][] ratings;
+    private final int[] maxRatings = new int[PLATFORMS];
+    private final double[] composite;
+
+    /**
+     * @param  size  the number of students
+     */
+    ScoreColumns(int size) {
+        this.size = size;
+        this.ratings = new int[PLATFORMS][size];
+        this.composite = new double[size];
+    }
+
+    /**
+     * Copies the ratings of the given users into columns; a missing GFG practice rating counts as 0.
+     *
+     * @param  users  the users, in student id order
+     * @return        the columns
+     */
+    static ScoreColumns of(Collection<User> users) {
+        ScoreColumns columns = new ScoreColumns(users.size());
+        int id = 0;
+        for (User user : users) {
+            Integer practiceRating = user.getgeeksforgeeksPracticeRating();
+            columns.ratings[CODEFORCES][id] = user.getCodeforcesRating();
+            columns.ratings[GEEKSFORGEEKS][id] = user.getGeeksforgeeksRating();
+            columns.ratings[GEEKSFORGEEKS_PRACTICE][id] = practiceRating == null ? 0 : practiceRating;
+            columns.ratings[LEETCODE][id] = user.getLeetcodeRating();
+            columns.ratings[CODECHEF][id] = user.getCodechefRating();
+            columns.ratings[HACKERRANK][id] = user.getHackerrankRating();
+            id++;
+        }
+        return columns;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return  the rating column of a platform, e.g. {@link #CODEFORCES}; writes go straight into the store
+     */
+    int[] column(int platform) {
+        return ratings[platform];
+    }
+
+    /**
+     * @return  the best rating on a platform, as of the last {@link #compute()}
+     */
+    int maxRating(int platform) {
+        return maxRatings[platform];
+    }
+
+    /**
+     * @return  a student's composite percentile, as of the last {@link #compute()}
+     */
+    double composite(int id) {
+        return composite[id];
+    }
+
+    /**
+     * Computes every platform's best rating and then every student's composite percentile: each rating as a
+     * percentage of its platform's best, weighted and summed. A platform nobody has a rating on contributes 0.
+     */
+    void compute() {
+        for (int platform = 0; platform < PLATFORMS; platform++) {
+            int[] column = ratings[platform];
+            int max = 0;
+            for (int id = 0; id < size; id++) {
+                max = Math.max(max, column[id]);
+            }
+            maxRatings[platform] = max;
+        }
+
+        Arrays.fill(composite, 0);
+        for (int platform = 0; platform < PLATFORMS; platform++) {
+            int max = maxRatings[platform];
+            if (max == 0) {
+                continue;
+            }
+            int[] column = ratings[platform];
+            double weight = WEIGHTS[platform];
+            for (int id = 0; id < size; id++) {
+                composite[id] += (double) column[id] / max * 100 * weight;
+            }
+        }
+    }
+
+    /**
+     * Changes one student's rating on a platform and recomputes what depends on it. That is only the student's own
+     * composite, unless the platform's best rating changes: every rating on the platform is a percentage of the best,
+     * so then every composite is recomputed. Finding the new best after the best student drops scans the column.
+     *
+     * @param  id        the student
+     * @param  platform  the platform, e.g. {@link #CODEFORCES}
+     * @param  rating    the new rating
+     * @return           whether every composite was recomputed
+     */
+    boolean update(int id, int platform, int rating) {
+        int[] column = ratings[platform];
+        int previous = column[id];
+        column[id] = rating;
+        int max = maxRatings[platform];
+        int newMax = max;
+        if (rating >= max) {
+            newMax = rating;
+        } else if (previous == max) {
+            newMax = 0;
+            for (int other = 0; other < size; other++) {
+                newMax = Math.max(newMax, column[other]);
+            }
+        }
+        if (newMax != max) {
+            compute();
+            return true;
+        }
+
+        // Same terms in the same order as compute(), so the result is bit-for-bit the same
+        double sum = 0;
+        for (int p = 0; p < PLATFORMS; p++) {
+            if (maxRatings[p] != 0) {
+                sum += (double) ratings[p][id] / maxRatings[p] * 100 * WEIGHTS[p];
+            }
+        }
+        composite[id] = sum;
+        return false;
+    }
+
+    /**
+     * @return  whether student {@code a} ranks above student {@code b}: a higher composite percentile, or the same one
+     *          and a lower student id, the order of {@link #ranking()}
+     */
+    boolean ranksAbove(int a, int b) {
+        int order = Double.compare(composite[b], composite[a]);
+        return order < 0 || (order == 0 && a < b);
+    }
+
+    /**
+     * @return  the student ids by decreasing composite percentile; ties keep student id order
+     */
+    int[] ranking() {
+        // Number the distinct composites from the best down, so a rank and an id fit in one long
+        double[] distinct = Arrays.copyOf(composite, size);
+        Arrays.sort(distinct);
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (count == 0 || Double.compare(distinct[count - 1], distinct[i]) != 0) {
+                distinct[count++] = distinct[i];
+            }
+        }
+
+        long[] keys = new long[size];
+        for (int id = 0; id < size; id++) {
+            long rank = count - 1 - Arrays.binarySearch(distinct, 0, count, composite[id]);
+            keys[id] = rank << 32 | id;
+        }
+        Arrays.sort(keys);
+
+        int[] ranking = new int[size];
+        for (int i = 0; i < size; i++) {
+            ranking[i] = (int) keys[i];
+        }
+        return ranking;
+    }
+}
@@ -0,0 +1,165 @@
+package org.cmrit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A durable record of the ratings fetched so far in a platform's scrape run, kept in the {@code scrape_journal}
+ * table of the cmrit SQLite database.
+ *
+ * The journal is attached to the run's {@link RatingsSink} as a listener, so every rating reaches the database
+ * shortly after it is written, in the batches {@link RatingsDatabase} commits. If the run dies halfway, the next
+ * run started with {@code --resume} reads the journal back, copies those ratings into its own sink and only fetches
+ * the remaining handles. A run that finishes clears its platform's journal with {@link #complete()}.
+ */
+class ScrapeJournal implements RatingsListener, Closeable {
+
+    private static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS scrape_journal (" +
+            "platform TEXT NOT NULL," +
+            "handle TEXT NOT NULL," +
+            "platform_handle TEXT," +
+            "rating INTEGER NOT NULL," +
+            "recorded_at INTEGER NOT NULL," +
+            "PRIMARY KEY (platform, handle))";
+
+    private static final String RECORD_SQL = "REPLACE INTO scrape_journal " +
+            "(platform, handle, platform_handle, rating, recorded_at) VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * A rating recorded by an earlier, unfinished run.
+     */
+    record Entry(String platformHandle, int rating, long recordedAt) {
+    }
+
+    private final String platform;
+    private final RatingsDatabase database;
+    private final PreparedStatement recordStatement;
+
+    private ScrapeJournal(String platform, RatingsDatabase database, PreparedStatement recordStatement) {
+        this.platform = platform;
+        this.database = database;
+        this.recordStatement = recordStatement;
+    }
+
+    /**
+     * Opens the journal for one platform, creating the table if needed.
+     *
+     * @param  database  the database holding the journal
+     * @param  platform  the platform whose run is journaled
+     * @return           the journal
+     * @throws IOException  if the table cannot be created
+     */
+    static ScrapeJournal open(RatingsDatabase database, String platform) throws IOException {
+        try {
+            PreparedStatement recordStatement = database.withConnection(conn -> {
+                try (Statement statement = conn.createStatement()) {
+                    statement.execute(CREATE_TABLE_SQL);
+                }
+                return conn.prepareStatement(RECORD_SQL);
+            });
+            return new ScrapeJournal(platform, database, recordStatement);
+        } catch (SQLException e) {
+            throw new IOException("Error opening scrape journal for " + platform + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Loads the ratings journaled for this platform that are not older than {@code maxAgeMillis}.
+     *
+     * @param  maxAgeMillis  entries recorded longer ago than this are treated as stale and ignored
+     * @return               journaled entries keyed by roster handle
+     * @throws IOException   if the journal cannot be read
+     */
+    Map<String, Entry> load(long maxAgeMillis) throws IOException {
+        Map<String, Entry> entries = new HashMap<>();
+        String sql = "SELECT handle, platform_handle, rating, recorded_at FROM scrape_journal WHERE platform = ? AND recorded_at >= ?";
+        try {
+            database.withConnection(conn -> {
+                try (PreparedStatement statement = conn.prepareStatement(sql)) {
+                    statement.setString(1, platform);
+                    statement.setLong(2, System.currentTimeMillis() - maxAgeMillis);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            entries.put(resultSet.getString("handle"), new Entry(
+                                    resultSet.getString("platform_handle"),
+                                    resultSet.getInt("rating"),
+                                    resultSet.getLong("recorded_at")));
+                        }
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new IOException("Error reading scrape journal for " + platform + ": " + e.getMessage(), e);
+        }
+        return entries;
+    }
+
+    @Override
+    public void onRating(String platform, String handle, String platformHandle, int rating, long fetchedAt) throws IOException {
+        try {
+            database.add(recordStatement, this.platform, handle, platformHandle, rating, fetchedAt);
+        } catch (SQLException e) {
+            throw new IOException("Error journaling " + platform + " rating for " + handle + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void onCommit(String platform) throws IOException {
+        try {
+            database.flush();
+        } catch (SQLException e) {
+            throw new IOException("Error journaling " + platform + " ratings: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Forgets everything journaled for this platform. Called when a run starts from scratch and when a run
+     * completes, since its results are then safely in the ratings file.
+     *
+     * @throws IOException  if the journal cannot be cleared
+     */
+    void clear() throws IOException {
+        try {
+            // Runs after the buffered rows are written, so none of them reappears once the journal is cleared
+            database.withConnection(conn -> {
+                try (PreparedStatement statement = conn.prepareStatement("DELETE FROM scrape_journal WHERE platform = ?")) {
+                    statement.setString(1, platform);
+                    return statement.executeUpdate();
+                }
+            });
+        } catch (SQLException e) {
+            throw new IOException("Error clearing scrape journal for " + platform + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Marks the run as finished.
+     *
+     * @throws IOException  if the journal cannot be cleared
+     */
+    void complete() throws IOException {
+        clear();
+    }
+
+    /**
+     * Writes the buffered ratings and releases the journal's statement; the database stays open.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            database.withConnection(conn -> {
+                recordStatement.close();
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new IOException("Error closing scrape journal for " + platform + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package org.cmrit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The HTTP client shared by every platform scraper.
+ *
+ * It wraps a single {@link HttpClient}, so connections (and their TLS sessions) are pooled and reused across
+ * handles and HTTP/2 is negotiated where the platform supports it. On top of that it adds what the JDK client
+ * leaves to the caller: gzip/deflate response decoding, a timeout on every request, a browser-like User-Agent
+ * and a cap on the number of concurrent requests per host, which also bounds the connections opened to it.
+ * Cookies are kept in a shared store, so a session set by one response is sent with every later request to that site.
+ */
+class ScraperHttpClient {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int MAX_CONNECTIONS_PER_HOST = 16;
+    private static final String USER_AGENT = "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/122.0 Safari/537.36";
+
+    private static final ScraperHttpClient SHARED = new ScraperHttpClient(CONNECT_TIMEOUT, REQUEST_TIMEOUT, MAX_CONNECTIONS_PER_HOST);
+
+    private final HttpClient client;
+    private final CookieManager cookies = new CookieManager(null, CookiePolicy.ACCEPT_ORIGINAL_SERVER);
+    private final Duration requestTimeout;
+    private final int maxConnectionsPerHost;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    ScraperHttpClient(Duration connectTimeout, Duration requestTimeout, int maxConnectionsPerHost) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(connectTimeout)
+                .cookieHandler(cookies)
+                .build();
+        this.requestTimeout = requestTimeout;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+    }
+
+    /**
+     * @return  the client instance every scraper should use
+     */
+    static ScraperHttpClient shared() {
+        return SHARED;
+    }
+
+    /**
+     * Sends a GET request. The returned response holds one of the host's connection permits until it is closed,
+     * so it must always be used in a try-with-resources block.
+     *
+     * @param  url  the absolute URL to fetch
+     * @return      the response, with a body that is already decompressed
+     * @throws IOException  if the request fails, times out or the thread is interrupted
+     */
+    Response get(String url) throws IOException {
+        return send(newRequest(url).GET());
+    }
+
+    /**
+     * Sends a POST request with the given body.
+     *
+     * @param  url          the absolute URL to post to
+     * @param  contentType  value of the Content-Type header
+     * @param  body         the request body
+     * @return              the response, with a body that is already decompressed
+     * @throws IOException  if the request fails, times out or the thread is interrupted
+     */
+    Response post(String url, String contentType, String body) throws IOException {
+        return send(newRequest(url)
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Fetches a URL and returns the body as a string.
+     *
+     * @param  url  the absolute URL to fetch
+     * @return      the decoded response body
+     * @throws HttpStatusException  if the server answers with a non-2xx status
+     * @throws IOException          if the request fails, times out or the thread is interrupted
+     */
+    String getString(String url) throws IOException {
+        try (Response response = get(url)) {
+            response.requireSuccess();
+            return response.bodyAsString();
+        }
+    }
+
+    /**
+     * Posts a body and returns the response body as a string.
+     *
+     * @param  url          the absolute URL to post to
+     * @param  contentType  value of the Content-Type header
+     * @param  body         the request body
+     * @return              the decoded response body
+     * @throws HttpStatusException  if the server answers with a non-2xx status
+     * @throws IOException          if the request fails, times out or the thread is interrupted
+     */
+    String postString(String url, String contentType, String body) throws IOException {
+        try (Response response = post(url, contentType, body)) {
+            response.requireSuccess();
+            return response.bodyAsString();
+        }
+    }
+
+    /**
+     * Adds cookies from a {@code Cookie} header value ("name=value; name2=value2"), e.g. a session copied from a
+     * browser, so they are sent with every request to {@code domain} and its subdomains.
+     *
+     * @param  domain        the site the cookies belong to, e.g. "geeksforgeeks.org"
+     * @param  cookieHeader  the cookies
+     */
+    void addCookies(String domain, String cookieHeader) {
+        URI uri = URI.create("https://" + domain + "/");
+        for (String pair : cookieHeader.split(";")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            HttpCookie cookie = new HttpCookie(pair.substring(0, eq).trim(), pair.substring(eq + 1).trim());
+            cookie.setDomain("." + domain);
+            cookie.setPath("/");
+            cookie.setVersion(0);
+            cookies.getCookieStore().add(uri, cookie);
+        }
+    }
+
+    private HttpRequest.Builder newRequest(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(requestTimeout)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept-Encoding", "gzip, deflate");
+    }
+
+    private Response send(HttpRequest.Builder builder) throws IOException {
+        HttpRequest request = builder.build();
+        String host = request.uri().getHost();
+        Semaphore permits = hostPermits.computeIfAbsent(host, h -> new Semaphore(maxConnectionsPerHost));
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a connection to " + host);
+        }
+        HttpResponse<InputStream> response = null;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            return new Response(response, decode(response), permits);
+        } catch (InterruptedException e) {
+            permits.release();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching " + request.uri());
+        } catch (IOException | RuntimeException e) {
+            // A body that failed to decode, e.g. a truncated gzip header, still holds the connection
+            if (response != null) {
+                closeQuietly(response.body(), e);
+            }
+            permits.release();
+            throw e;
+        }
+    }
+
+    private static void closeQuietly(InputStream body, Exception cause) {
+        try {
+            body.close();
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private static InputStream decode(HttpResponse<InputStream> response) throws IOException {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("").toLowerCase(Locale.ROOT);
+        return switch (encoding) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(response.body());
+            case "deflate" -> new InflaterInputStream(response.body());
+            default -> response.body();
+        };
+    }
+
+    /**
+     * A response whose body has been decompressed. Closing it closes the body and returns the host permit.
+     */
+    static class Response implements Closeable {
+        private final HttpResponse<InputStream> response;
+        private final InputStream body;
+        private final Semaphore permits;
+        private boolean closed;
+
+        private Response(HttpResponse<InputStream> response, InputStream body, Semaphore permits) {
+            this.response = response;
+            this.body = body;
+            this.permits = permits;
+        }
+
+        int statusCode() {
+            return response.statusCode();
+        }
+
+        boolean isSuccess() {
+            return statusCode() / 100 == 2;
+        }
+
+        String uri() {
+            return response.uri().toString();
+        }
+
+        InputStream body() {
+            return body;
+        }
+
+        String bodyAsString() throws IOException {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        /**
+         * @throws HttpStatusException  if the status is not 2xx
+         */
+        void requireSuccess() throws HttpStatusException {
+            if (!isSuccess()) {
+                throw new HttpStatusException(statusCode(), uri());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            try {
+                body.close();
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Thrown when a server answers with a non-2xx status.
+     */
+    static class HttpStatusException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private final int statusCode;
+
+        HttpStatusException(int statusCode, String uri) {
+            super("HTTP " + statusCode + " for " + uri);
+            this.statusCode = statusCode;
+        }
+
+        int getStatusCode() {
+            return statusCode;
+        }
+    }
+}
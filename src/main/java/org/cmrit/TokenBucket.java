@@ -0,0 +1,61 @@
+package org.cmrit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A thread-safe token bucket used to keep a scraper under a platform's rate limit.
+ *
+ * Tokens refill continuously at {@code permitsPerSecond} up to {@code capacity}. Each call to
+ * {@link #acquire()} reserves one token; when the bucket is empty the caller is told how long its
+ * reservation takes to mature and sleeps outside the lock, so any number of threads can share one
+ * bucket without ever exceeding the configured rate.
+ */
+class TokenBucket {
+
+    private final double capacity;
+    private final double permitsPerNano;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * Creates a bucket that starts full.
+     *
+     * @param  capacity          maximum number of tokens that can be banked (the allowed burst)
+     * @param  permitsPerSecond  sustained refill rate
+     */
+    TokenBucket(double capacity, double permitsPerSecond) {
+        if (capacity < 1 || permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity must be >= 1 and permitsPerSecond > 0");
+        }
+        this.capacity = capacity;
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes one token, blocking until the reservation is covered by the refill rate.
+     *
+     * @throws InterruptedException  if the thread is interrupted while waiting
+     */
+    void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            refill();
+            tokens -= 1;
+            if (tokens >= 0) {
+                return;
+            }
+            // The bucket is in debt; this caller waits until its share of the debt is repaid
+            waitNanos = (long) Math.ceil(-tokens / permitsPerNano);
+        }
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+    }
+}
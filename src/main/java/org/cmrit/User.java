@@ -0,0 +1,179 @@
+package org.cmrit;
+
+/**
+ * Represents a user with various handles and ratings on different platforms.
+ * The User class provides methods to get and set the user's handles and ratings on platforms such as Codeforces, GeeksforGeeks, LeetCode, Codechef, and Hackerrank.
+ * 
+ * The User class has the following attributes:
+ * - handle: The user's handle or username.
+ * - codeforcesHandle: The user's handle on Codeforces platform.
+ * - geeksforgeeksHandle: The user's handle on GeeksforGeeks platform.
+ * - leetcodeHandle: The user's handle on LeetCode platform.
+ * - codechefHandle: The user's handle on Codechef platform.
+ * - hackerrankHandle: The user's handle on Hackerrank platform.
+ * - codeforcesRating: The user's rating on Codeforces platform.
+ * - geeksforgeeksRating: The user's rating on GeeksforGeeks platform.
+ * - geeksforgeeksPracticeRating: The user's practice rating on GeeksforGeeks platform.
+ * - leetcodeRating: The user's rating on LeetCode platform.
+ * - codechefRating: The user's rating on Codechef platform.
+ * - hackerrankRating: The user's rating on Hackerrank platform.
+ * - percentile: The user's percentile.
+ * 
+ * The User class provides the following methods:
+ * - getHandle(): Returns the user's handle.
+ * - getCodeforcesHandle(): Returns the user's handle on Codeforces platform.
+ * - getGeeksforgeeksHandle(): Returns the user's handle on GeeksforGeeks platform.
+ * - getLeetcodeHandle(): Returns the user's handle on LeetCode platform.
+ * - getCodechefHandle(): Returns the user's handle on Codechef platform.
+ * - getHackerrankHandle(): Returns the user's handle on Hackerrank platform.
+ * - getCodeforcesRating(): Returns the user's rating on Codeforces platform.
+ * - getGeeksforgeeksRating(): Returns the user's rating on GeeksforGeeks platform.
+ * - getgeeksforgeeksPracticeRating(): Returns the user's practice rating on GeeksforGeeks platform.
+ * - getLeetcodeRating(): Returns the user's rating on LeetCode platform.
+ * - getCodechefRating(): Returns the user's rating on Codechef platform.
+ * - getHackerrankRating(): Returns the user's rating on Hackerrank platform.
+ * - getPercentile(): Returns the user's percentile.
+ * - setCodeforcesRating(Integer codeforcesRating): Sets the user's rating on Codeforces platform.
+ * - setGeeksforgeeksRating(Integer geeksforgeeksRating): Sets the user's rating on GeeksforGeeks platform.
+ * - setgeeksforgeeksPracticeRating(Integer geeksforgeeksPracticeRating): Sets the user's practice rating on GeeksforGeeks platform.
+ * - setLeetcodeRating(Integer leetcodeRating): Sets the user's rating on LeetCode platform.
+ * - setCodechefRating(Integer codechefRating): Sets the user's rating on Codechef platform.
+ * - setHackerrankRating(Integer hackerrankRating): Sets the user's rating on Hackerrank platform.
+ * - setPercentile(Double percentile): Sets the user's percentile.
+ */
+
+public class User {
+    private String handle;
+    private String codeforcesHandle;
+    private String geeksforgeeksHandle;
+    private String leetcodeHandle;
+    private String codechefHandle;
+    private String hackerrankHandle;
+
+    private Integer codeforcesRating;
+    private Integer geeksforgeeksRating;
+    private Integer geeksforgeeksPracticeRating;
+    private Integer leetcodeRating;
+    private Integer codechefRating;
+    private Integer hackerrankRating;
+    private Double percentile;
+
+    public User(String handle, String platform, String username) {
+        this.handle = handle;
+        switch (platform) {
+            case "codeforces" -> this.codeforcesHandle = username;
+            case "geeksforgeeks" -> this.geeksforgeeksHandle = username;
+            case "leetcode" -> this.leetcodeHandle = username;
+            case "codechef" -> this.codechefHandle = username;
+            case "hackerrank" -> this.hackerrankHandle = username;
+        }
+        // set all ratings to 0
+        this.codeforcesRating = 0;
+        this.geeksforgeeksRating = 0;
+        this.geeksforgeeksPracticeRating = null;
+        this.leetcodeRating = 0;
+        this.codechefRating = 0;
+        this.hackerrankRating = 0;
+    }
+
+    public User(String handle, String codeforcesHandle, String geeksforgeeksHandle, String leetcodeHandle, String codechefHandle, String hackerrankHandle) {
+        this.handle = handle;
+        this.codeforcesHandle = codeforcesHandle;
+        this.geeksforgeeksHandle = geeksforgeeksHandle;
+        this.leetcodeHandle = leetcodeHandle;
+        this.codechefHandle = codechefHandle;
+        this.hackerrankHandle = hackerrankHandle;
+        // set all ratings to 0
+        this.codeforcesRating = 0;
+        this.geeksforgeeksRating = 0;
+        this.geeksforgeeksPracticeRating = null;
+        this.leetcodeRating = 0;
+        this.codechefRating = 0;
+        this.hackerrankRating = 0;
+    }
+
+    // getters
+
+    public String getHandle() {
+        return handle;
+    }
+
+    public String getCodeforcesHandle() {
+        return codeforcesHandle;
+    }
+
+    public String getGeeksforgeeksHandle() {
+        return geeksforgeeksHandle;
+    }
+
+    public String getLeetcodeHandle() {
+        return leetcodeHandle;
+    }
+
+    public String getCodechefHandle() {
+        return codechefHandle;
+    }
+
+    public String getHackerrankHandle() {
+        return hackerrankHandle;
+    }
+
+    public Integer getCodeforcesRating() {
+        return codeforcesRating;
+    }
+
+    public Integer getGeeksforgeeksRating() {
+        return geeksforgeeksRating;
+    }
+
+    public Integer getgeeksforgeeksPracticeRating() {
+        return geeksforgeeksPracticeRating;
+    }
+
+    public Integer getLeetcodeRating() {
+        return leetcodeRating;
+    }
+
+    public Integer getCodechefRating() {
+        return codechefRating;
+    }
+
+    public Integer getHackerrankRating() {
+        return hackerrankRating;
+    }
+
+    public Double getPercentile() {
+        return percentile;
+    }
+
+    // setters
+
+    public void setCodeforcesRating(Integer codeforcesRating) {
+        this.codeforcesRating = codeforcesRating;
+    }
+
+    public void setGeeksforgeeksRating(Integer geeksforgeeksRating) {
+        this.geeksforgeeksRating = geeksforgeeksRating;
+    }
+
+    public void setgeeksforgeeksPracticeRating(Integer geeksforgeeksPracticeRating) {
+        this.geeksforgeeksPracticeRating = geeksforgeeksPracticeRating;
+    }
+
+    public void setLeetcodeRating(Integer leetcodeRating) {
+        this.leetcodeRating = leetcodeRating;
+    }
+
+    public void setCodechefRating(Integer codechefRating) {
+        this.codechefRating = codechefRating;
+    }
+
+    public void setHackerrankRating(Integer hackerrankRating) {
+        this.hackerrankRating = hackerrankRating;
+    }
+
+    public void setPercentile(Double percentile) {
+        this.percentile = percentile;
+    }
+}
+
@@ -128,6 +128,69 @@ function importExcel() {
   );
 }
 
+// precomputed JSON written by buildLeaderboard next to the xlsx
+const WEB_BASE_URL = 'https://raw.githubusercontent.com/gabyah92/CMRIT2025Leaderboard/main/Leaderboards/web/';
+
+function fetchJson(url) {
+  return fetch(url).then(function (response) {
+    if (!response.ok) {
+      throw new Error(url + ' returned ' + response.status);
+    }
+    return response.json();
+  });
+}
+
+// turn a columnar shard ({ columns, values: [[column values]...] }) into grid rows
+function columnarToRows(shard) {
+  var rowData = [];
+  for (var i = 0; i < shard.count; i++) {
+    var row = {};
+    shard.columns.forEach((column, c) => {
+      row[column] = shard.values[c][i];
+    });
+    rowData.push(row);
+  }
+  return rowData;
+}
+
+// show the first page of the leaderboard as soon as it arrives, then add the other pages in rank order
+function importShards() {
+  return fetchJson(WEB_BASE_URL + 'index.json').then(function (index) {
+    // each build writes its pages to a directory of its own, named in the index
+    var pagesUrl = WEB_BASE_URL + (index.pagesDir || 'pages/');
+    var checkBuild = function (shard) {
+      // a cached page from another build would mix two leaderboards
+      if (shard.generatedAt !== index.generatedAt) {
+        throw new Error('leaderboard pages are from different builds');
+      }
+      return shard;
+    };
+
+    // a page is only requested once the one before it is in the grid, so the first rows never wait on later ones
+    var loadPage = function (page) {
+      if (page > index.pages) {
+        return;
+      }
+      return fetchJson(pagesUrl + 'page-' + page + '.json')
+        .then(checkBuild)
+        .then(function (data) {
+          if (page === 1) {
+            gridApi.setGridOption('rowData', columnarToRows(data));
+          } else {
+            gridApi.applyTransaction({ add: columnarToRows(data) });
+          }
+          return loadPage(page + 1);
+        });
+    };
+
+    if (!(index.pages > 0)) {
+      gridApi.setGridOption('rowData', []);
+      return;
+    }
+    return loadPage(1);
+  });
+}
+
 // wait for the document to be loaded, otherwise
 // AG Grid will not find the div in the document.
 document.addEventListener('DOMContentLoaded', function () {
@@ -137,6 +200,9 @@ document.addEventListener('DOMContentLoaded', function () {
   // create the grid passing in the div to use together with the columns & data we want to use
   gridApi = agGrid.createGrid(eGridDiv, gridOptions);
 
-  // call importExcel function
-  importExcel();
+  // load the precomputed pages, falling back to the xlsx if they are missing or inconsistent
+  importShards().catch(function (error) {
+    console.warn('Falling back to the xlsx leaderboard: ' + error.message);
+    importExcel();
+  });
 });
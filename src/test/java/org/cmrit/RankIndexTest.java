@@ -0,0 +1,83 @@
+package org.cmrit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RankIndexTest {
+
+    @Test
+    void matchesAFullRankingAfterRandomUpdates() {
+        for (long seed = 1; seed <= 5; seed++) {
+            Random random = new Random(seed);
+            // Narrow rating ranges, so many students tie and the id tie-break is exercised
+            ScoreColumns scores = randomScores(random, 500, 40);
+            RankIndex index = new RankIndex(scores);
+            assertMatchesRanking(scores, index, random);
+
+            for (int update = 0; update < 2000; update++) {
+                int id = random.nextInt(scores.size());
+                int platform = random.nextInt(ScoreColumns.PLATFORMS);
+                int max = scores.maxRating(platform);
+                // Mostly ordinary changes, sometimes a new best or the best student dropping
+                int rating = switch (random.nextInt(20)) {
+                    case 0 -> max + 1 + random.nextInt(5);
+                    case 1 -> 0;
+                    default -> random.nextInt(max + 1);
+                };
+                boolean rebuilt = index.update(id, platform, rating);
+                assertEquals(scores.maxRating(platform) != max, rebuilt, "seed " + seed + ", update " + update);
+                if (update % 100 == 0) {
+                    assertMatchesRanking(scores, index, random);
+                }
+            }
+            assertMatchesRanking(scores, index, random);
+        }
+    }
+
+    @Test
+    void handlesAnEmptyLeaderboard() {
+        RankIndex index = new RankIndex(randomScores(new Random(1), 0, 10));
+
+        assertArrayEquals(new int[0], index.top(10));
+        assertArrayEquals(new int[0], index.around(1, 5));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.idAt(1));
+    }
+
+    private static ScoreColumns randomScores(Random random, int size, int maxRating) {
+        ScoreColumns scores = new ScoreColumns(size);
+        for (int platform = 0; platform < ScoreColumns.PLATFORMS; platform++) {
+            int[] column = scores.column(platform);
+            for (int id = 0; id < size; id++) {
+                column[id] = random.nextInt(maxRating + 1);
+            }
+        }
+        scores.compute();
+        return scores;
+    }
+
+    private static void assertMatchesRanking(ScoreColumns scores, RankIndex index, Random random) {
+        int[] ranking = scores.ranking();
+        int size = ranking.length;
+
+        assertArrayEquals(ranking, index.top(size));
+        assertArrayEquals(Arrays.copyOf(ranking, Math.min(10, size)), index.top(10));
+        assertArrayEquals(ranking, index.top(size + 10));
+        for (int rank = 1; rank <= size; rank++) {
+            assertEquals(rank, index.rankOf(ranking[rank - 1]));
+            assertEquals(ranking[rank - 1], index.idAt(rank));
+        }
+        for (int check = 0; check < 20; check++) {
+            int rank = 1 + random.nextInt(size);
+            int radius = random.nextInt(8);
+            int from = Math.max(rank - radius, 1);
+            int to = Math.min(rank + radius, size);
+            assertArrayEquals(Arrays.copyOfRange(ranking, from - 1, to), index.around(rank, radius));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.cmrit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RatingsFileTest {
+
+    private static final List<RatingsCollector.Rating> RATINGS = List.of(
+            new RatingsCollector.Rating("21R01A0501", "tourist", 3800),
+            new RatingsCollector.Rating("21R01A0502", "21R01A0502", 0),
+            new RatingsCollector.Rating("21R01A0503", "null", -42),
+            new RatingsCollector.Rating("21R01A0504", "\u0c95\u0ca8\u0ccd\u0ca8\u0ca1_coder", Integer.MAX_VALUE),
+            new RatingsCollector.Rating("21R01A0501", "tourist", Integer.MIN_VALUE));
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsEveryRatingInOrder() throws IOException {
+        Path file = dir.resolve("codechef_ratings.bin");
+        RatingsFile.write(file, "codechef", 1_700_000_000_123L, RATINGS);
+
+        RatingsFile.Contents contents = RatingsFile.read(file);
+        assertEquals("codechef", contents.platform());
+        assertEquals(1_700_000_000_123L, contents.writtenAt());
+        assertEquals(RATINGS, contents.ratings());
+        assertFalse(Files.exists(dir.resolve("codechef_ratings.bin.tmp")));
+    }
+
+    @Test
+    void roundTripsAnEmptyFile() throws IOException {
+        Path file = dir.resolve("gfg_ratings.bin");
+        RatingsFile.write(file, "gfg", 0, List.of());
+
+        assertEquals(List.of(), RatingsFile.read(file).ratings());
+    }
+
+    @Test
+    void replacesAnExistingFile() throws IOException {
+        Path file = dir.resolve("leetcode_ratings.bin");
+        RatingsFile.write(file, "leetcode", 1, RATINGS);
+        RatingsFile.write(file, "leetcode", 2, RATINGS.subList(0, 1));
+
+        RatingsFile.Contents contents = RatingsFile.read(file);
+        assertEquals(2, contents.writtenAt());
+        assertEquals(RATINGS.subList(0, 1), contents.ratings());
+    }
+
+    @Test
+    void rejectsEveryFlippedByte() throws IOException {
+        Path file = dir.resolve("codeforces_ratings.bin");
+        RatingsFile.write(file, "codeforces", 1_700_000_000_000L, RATINGS);
+        byte[] bytes = Files.readAllBytes(file);
+
+        for (int i = 0; i < bytes.length; i++) {
+            byte[] corrupt = bytes.clone();
+            corrupt[i] ^= 0x10;
+            Files.write(file, corrupt);
+            assertThrows(IOException.class, () -> RatingsFile.read(file), "byte " + i);
+        }
+    }
+
+    @Test
+    void rejectsTruncatedFiles() throws IOException {
+        Path file = dir.resolve("hackerrank_ratings.bin");
+        RatingsFile.write(file, "hackerrank", 1_700_000_000_000L, RATINGS);
+        byte[] bytes = Files.readAllBytes(file);
+
+        for (int length = 0; length < bytes.length; length++) {
+            Files.write(file, Arrays.copyOf(bytes, length));
+            assertThrows(IOException.class, () -> RatingsFile.read(file), "length " + length);
+        }
+    }
+
+    @Test
+    void rejectsFilesOfAnotherFormat() throws IOException {
+        Path file = dir.resolve("codechef_ratings.bin");
+        Files.writeString(file, "21R01A0501,tourist,3800\n");
+
+        IOException e = assertThrows(IOException.class, () -> RatingsFile.read(file));
+        assertTrue(e.getMessage().contains("not a ratings file"), e.getMessage());
+    }
+}